@@ -0,0 +1,87 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.benchmark;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteCache;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Throughput of the local (backup) cache when many request threads hit it at once, both read-only and with a
+  * quarter of the threads writing, over a working set twice the size of the cache so evictions happen too */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BackupCacheBenchmark {
+	private static final int CACHE_SIZE = 1000;
+	private static final int SYMBOLS = CACHE_SIZE * 2;
+
+	private QuoteCache cache;
+	private String[] symbols;
+	private Quote[] quotes;
+
+	@Setup
+	public void setup() {
+		cache = new QuoteCache(CACHE_SIZE, TimeUnit.MINUTES.toMillis(60));
+		symbols = new String[SYMBOLS];
+		quotes = new Quote[SYMBOLS];
+		for (int index = 0; index < SYMBOLS; index++) {
+			symbols[index] = "SYM"+index;
+			quotes[index] = new Quote(symbols[index], index, "2016-06-27", System.currentTimeMillis());
+			cache.put(symbols[index], quotes[index]);
+		}
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Quote readOnly() {
+		return cache.get(symbols[ThreadLocalRandom.current().nextInt(SYMBOLS)]);
+	}
+
+	@Benchmark
+	@Group("mixed")
+	@GroupThreads(6)
+	public Quote mixedRead() {
+		return cache.getAnyAge(symbols[ThreadLocalRandom.current().nextInt(SYMBOLS)]);
+	}
+
+	@Benchmark
+	@Group("mixed")
+	@GroupThreads(2)
+	public void mixedWrite() {
+		int index = ThreadLocalRandom.current().nextInt(SYMBOLS);
+		cache.putBackup(symbols[index], quotes[index]);
+	}
+}
@@ -0,0 +1,113 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.benchmark;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.QuoteDeserializer;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.QuoteJsonbResolver;
+
+import java.util.concurrent.TimeUnit;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares the ways of reading and writing a Quote as JSON: a new Jsonb per call (how getStockQuote used to parse
+  * what it got from Redis), a shared reflection-based Jsonb, the shared Jsonb with our hand-written serializer and
+  * deserializer, and our JSON-P streaming parser (what's now used for Redis values).  Also covers Quote.equals,
+  * since it compares the JSON forms of the two quotes. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuoteJsonBenchmark {
+	private static final String JSON = "{\"symbol\": \"IBM\", \"price\": 155.23, \"date\": \"2016-06-27\", \"time\": 1467028800000}";
+
+	private Quote quote;
+	private Quote sameQuote;
+	private Jsonb reflectiveJsonb;
+	private Jsonb customJsonb;
+
+	@Setup
+	public void setup() {
+		quote = new Quote("IBM", 155.23, "2016-06-27", 1467028800000L);
+		sameQuote = new Quote("IBM", 155.23, "2016-06-27", 1467028800000L);
+		reflectiveJsonb = JsonbBuilder.create();
+		customJsonb = QuoteJsonbResolver.getJsonb();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		reflectiveJsonb.close();
+		QuoteJsonbResolver.close();
+	}
+
+	@Benchmark
+	public Quote readWithJsonbPerCall() throws Exception {
+		try (Jsonb jsonb = JsonbBuilder.create()) {
+			return jsonb.fromJson(JSON, Quote.class);
+		}
+	}
+
+	@Benchmark
+	public Quote readWithSharedReflectiveJsonb() {
+		return reflectiveJsonb.fromJson(JSON, Quote.class);
+	}
+
+	@Benchmark
+	public Quote readWithSharedCustomJsonb() {
+		return customJsonb.fromJson(JSON, Quote.class);
+	}
+
+	@Benchmark
+	public Quote readWithStreamingParser() {
+		return QuoteDeserializer.fromJson(JSON);
+	}
+
+	@Benchmark
+	public String writeWithSharedReflectiveJsonb() {
+		return reflectiveJsonb.toJson(quote);
+	}
+
+	@Benchmark
+	public String writeWithSharedCustomJsonb() {
+		return customJsonb.toJson(quote);
+	}
+
+	@Benchmark
+	public String writeWithToString() {
+		return quote.toString();
+	}
+
+	@Benchmark
+	public boolean equalsSameValues() { //Quote.equals compares the JSON forms
+		return quote.equals(sameQuote);
+	}
+}
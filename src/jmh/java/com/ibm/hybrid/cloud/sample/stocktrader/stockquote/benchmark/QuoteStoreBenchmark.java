@@ -0,0 +1,114 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.benchmark;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteStore;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test.RedisStandIn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import redis.clients.jedis.Jedis;
+
+/** Round trips through QuoteStore, in each QUOTE_FORMAT, against the in-process Redis stand-in: what the encoding,
+  * decoding and the number of bytes on the wire cost us, with the real Redis server's own work taken out.  The lookups
+  * also read each key's remaining TTL, when quotes are written with one. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuoteStoreBenchmark {
+	private static final int BATCH_SIZE = 50;
+
+	@Param({"JSON", "BINARY", "HASH"})
+	public QuoteStore.Format format;
+
+	/** Minutes quotes stay in Redis; 0 for no expiry */
+	@Param({"0", "1440"})
+	public long timeToLive;
+
+	private RedisStandIn redis;
+	private Jedis jedis;
+	private QuoteStore quoteStore;
+	private Quote quote;
+	private List<String> batch;
+
+	@Setup
+	public void setup() throws Exception {
+		redis = new RedisStandIn();
+		jedis = new Jedis(redis.getURI());
+		quoteStore = new QuoteStore("quote:", format);
+		quoteStore.setExpiry(timeToLive*60000, 60*60000);
+		quote = new Quote("IBM", 155.23, "2016-06-27", System.currentTimeMillis());
+		quoteStore.set(jedis, "IBM", quote);
+
+		batch = new ArrayList<>(BATCH_SIZE);
+		for (int index = 0; index < BATCH_SIZE; index++) {
+			String symbol = "SYM"+index;
+			quoteStore.set(jedis, symbol, new Quote(symbol, index, "2016-06-27", System.currentTimeMillis()));
+			batch.add(symbol);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		jedis.close();
+		redis.close();
+	}
+
+	@Benchmark
+	public Quote get() throws Exception {
+		return quoteStore.get(jedis, "IBM");
+	}
+
+	@Benchmark
+	public void set() {
+		quoteStore.set(jedis, "IBM", quote);
+	}
+
+	@Benchmark
+	public List<Quote> getBatch() {
+		return quoteStore.getAllBySymbol(jedis, batch);
+	}
+
+	@Benchmark
+	public QuoteStore.Lookup lookup() throws Exception {
+		return quoteStore.lookup(jedis, "IBM");
+	}
+
+	@Benchmark
+	public List<QuoteStore.Lookup> lookupBatch() {
+		return quoteStore.lookupAll(jedis, batch);
+	}
+}
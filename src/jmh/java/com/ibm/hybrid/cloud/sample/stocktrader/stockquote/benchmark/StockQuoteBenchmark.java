@@ -0,0 +1,107 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.benchmark;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.StockQuote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteCache;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.RedisTopology;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test.RedisStandIn;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Latency of StockQuote.getStockQuote on each of its paths: a fresh quote in the local cache, a fresh quote only in
+  * Redis, and a quote that's in neither (so it goes to the stubbed API Connect client and gets written back).  StockQuote
+  * is built outside of Liberty, so the pieces CDI would normally inject, and the Redis pool, are set via StockQuoteFixture. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.config.file=/dev/null") //our WARNING/INFO logging would swamp the results
+public class StockQuoteBenchmark {
+	private static final String LOCAL_SYMBOL = "IBM"; //kept fresh in the local cache
+	private static final String REDIS_SYMBOL = "AAPL"; //kept fresh in Redis, but evicted from the local cache each time
+
+	/** Simulated round trip to API Connect, in microseconds */
+	@Param({"0", "5000"})
+	public long upstreamLatency;
+
+	private RedisStandIn redis;
+	private RedisTopology topology;
+	private StockQuote stockQuote;
+	private QuoteCache localCache;
+	private final AtomicLong missCounter = new AtomicLong();
+
+	@Setup
+	public void setup() throws Exception {
+		redis = new RedisStandIn();
+		stockQuote = new StockQuote();
+
+		topology = RedisTopology.standalone(redis.getURI(), StockQuote.getPoolConfig(), null);
+		StockQuoteFixture.setRedis(topology);
+		StockQuoteFixture.setAPIConnectClient(stockQuote, new StubAPIConnectClient(upstreamLatency));
+		stockQuote.start(); //with Redis already in place, this just sets up the caches
+		localCache = StockQuoteFixture.getLocalCache();
+	}
+
+	/** Start each iteration from the same state, so the miss benchmark doesn't grow Redis without bound */
+	@Setup(Level.Iteration)
+	public void prime() throws Exception {
+		redis.clear();
+		stockQuote.getStockQuote(LOCAL_SYMBOL);
+		stockQuote.getStockQuote(REDIS_SYMBOL);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		StockQuoteFixture.setRedis(null);
+		topology.close();
+		redis.close();
+	}
+
+	@Benchmark
+	public Quote localCacheHit() throws Exception {
+		return stockQuote.getStockQuote(LOCAL_SYMBOL);
+	}
+
+	@Benchmark
+	public Quote redisHit() throws Exception {
+		localCache.invalidate(REDIS_SYMBOL);
+		return stockQuote.getStockQuote(REDIS_SYMBOL);
+	}
+
+	@Benchmark
+	public Quote cacheMiss() throws Exception {
+		return stockQuote.getStockQuote("MISS"+missCounter.incrementAndGet()); //never asked for before
+	}
+}
@@ -0,0 +1,81 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.benchmark;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.StockQuote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteCache;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.RedisTopology;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.client.APIConnectClient;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ExecutorService;
+
+import io.opentelemetry.api.trace.Tracer;
+
+/** Wires up a StockQuote outside of Liberty for the benchmarks.  The pieces CDI would normally inject, and the Redis
+  * pool, are private to StockQuote, so they're set reflectively, all from here.  The fields are looked up when this
+  * class loads, so renaming one in StockQuote fails every benchmark right away, naming the field, rather than partway
+  * through a run. */
+final class StockQuoteFixture {
+	private static final Field REDIS = field("redis");
+	private static final Field LOCAL_CACHE = field("localCache");
+	private static final Field API_CONNECT_CLIENT = field("apiConnectClient");
+	private static final Field DETAIL_TRACER = field("detailTracer");
+	private static final Field VIRTUAL_THREAD_EXECUTOR = field("virtualThreadExecutor");
+	private static final Field SLOW_TIME = field("slow_time");
+
+	private StockQuoteFixture() {
+	}
+
+	static void setRedis(RedisTopology topology) throws IllegalAccessException {
+		REDIS.set(null, topology);
+	}
+
+	/** Only there once StockQuote.start() has run */
+	static QuoteCache getLocalCache() throws IllegalAccessException {
+		return (QuoteCache) LOCAL_CACHE.get(null);
+	}
+
+	static void setAPIConnectClient(StockQuote stockQuote, APIConnectClient client) throws IllegalAccessException {
+		API_CONNECT_CLIENT.set(stockQuote, client);
+	}
+
+	/** As if quote.tracing=detailed, or null for resource */
+	static void setDetailTracer(Tracer tracer) throws IllegalAccessException {
+		DETAIL_TRACER.set(null, tracer);
+	}
+
+	/** As if VIRTUAL_THREADS=true, which has to be in place before the Redis pool is configured */
+	static void setVirtualThreadExecutor(ExecutorService executor) throws IllegalAccessException {
+		VIRTUAL_THREAD_EXECUTOR.set(null, executor);
+	}
+
+	/** Milliseconds the SLOW symbol waits before answering */
+	static void setSlowTime(long millis) throws IllegalAccessException {
+		SLOW_TIME.setLong(null, millis);
+	}
+
+	private static Field field(String name) {
+		try {
+			Field field = StockQuote.class.getDeclaredField(name);
+			field.setAccessible(true);
+			return field;
+		} catch (NoSuchFieldException e) {
+			throw new IllegalStateException("StockQuote no longer has a field called "+name+", so StockQuoteFixture needs updating", e);
+		}
+	}
+}
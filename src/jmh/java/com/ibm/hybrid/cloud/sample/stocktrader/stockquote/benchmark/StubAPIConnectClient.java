@@ -0,0 +1,69 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.benchmark;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.client.APIConnectClient;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/** Stands in for the API Connect facade, answering instantly (or after a fixed delay, to mimic the network) with a
+  * fresh quote, so the benchmarks measure our own overhead rather than IEX's */
+public class StubAPIConnectClient implements APIConnectClient {
+	private final long latencyNanos;
+	private final LongAdder calls = new LongAdder();
+
+	public StubAPIConnectClient(long latencyMicros) {
+		this.latencyNanos = latencyMicros * 1000;
+	}
+
+	@Override
+	public Quote getStockQuoteViaAPIConnect(String symbol) {
+		calls.increment();
+		if (latencyNanos > 0) LockSupport.parkNanos(latencyNanos);
+		return new Quote(symbol, 155.23, "2016-06-27", System.currentTimeMillis());
+	}
+
+	@Override
+	public CompletionStage<Quote> getStockQuoteViaAPIConnectAsync(String symbol) {
+		return CompletableFuture.supplyAsync(() -> getStockQuoteViaAPIConnect(symbol));
+	}
+
+	@Override
+	public CompletionStage<Map<String, Map<String, Quote>>> getStockQuotesViaAPIConnectAsync(String symbols, String types) {
+		return CompletableFuture.supplyAsync(() -> {
+			calls.increment();
+			if (latencyNanos > 0) LockSupport.parkNanos(latencyNanos);
+			Map<String, Map<String, Quote>> response = new HashMap<>();
+			for (String symbol : symbols.split(",")) {
+				Map<String, Quote> result = new HashMap<>();
+				result.put("quote", new Quote(symbol, 155.23, "2016-06-27", System.currentTimeMillis()));
+				response.put(symbol, result);
+			}
+			return response;
+		});
+	}
+
+	public long getCallCount() {
+		return calls.sum();
+	}
+}
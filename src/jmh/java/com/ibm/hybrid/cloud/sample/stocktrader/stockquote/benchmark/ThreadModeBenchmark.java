@@ -0,0 +1,114 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.benchmark;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.StockQuote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.RedisTopology;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test.RedisStandIn;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Load test of the blocking quote path with a slow upstream: 1000 concurrent clients, each waiting on its own quote,
+  * served either by a pool of platform worker threads (like Liberty's) running getStockQuote, or by getStockQuoteAsync
+  * with VIRTUAL_THREADS enabled.  The SLOW path sleeps (SLOW_TIME shortened to the upstream latency); the MISS path asks
+  * for a new symbol each time, so it goes through Redis to the stubbed API Connect client and back into Redis.
+  * Throughput and the latency percentiles (p99 included) both end up in the JSON results.  The virtual mode needs
+  * Java 21 or later. */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(1000)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.config.file=/dev/null") //our WARNING/INFO logging would swamp the results
+public class ThreadModeBenchmark {
+	private static final int WORKER_THREADS = 200; //the platform thread pool, as big as the Redis pool
+
+	@Param({"platform", "virtual"})
+	public String threads;
+
+	@Param({"SLOW", "MISS"})
+	public String path;
+
+	/** How long SLOW sleeps, and how long the stubbed API Connect call takes, in milliseconds */
+	@Param({"100"})
+	public long upstreamLatency;
+
+	private RedisStandIn redis;
+	private RedisTopology topology;
+	private StockQuote stockQuote;
+	private ExecutorService workers;
+	private boolean virtual;
+	private final AtomicLong missCounter = new AtomicLong();
+
+	@Setup
+	public void setup() throws Exception {
+		virtual = threads.equals("virtual");
+		if (virtual) { //as if VIRTUAL_THREADS=true, which has to be in place before the Redis pool is configured
+			StockQuoteFixture.setVirtualThreadExecutor((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+		} else {
+			workers = Executors.newFixedThreadPool(WORKER_THREADS);
+		}
+
+		redis = new RedisStandIn();
+		stockQuote = new StockQuote();
+		StockQuoteFixture.setSlowTime(upstreamLatency);
+		topology = RedisTopology.standalone(redis.getURI(), StockQuote.getPoolConfig(), null);
+		StockQuoteFixture.setRedis(topology);
+
+		StockQuoteFixture.setAPIConnectClient(stockQuote, new StubAPIConnectClient(upstreamLatency * 1000));
+	}
+
+	@Setup(Level.Iteration)
+	public void clearRedis() {
+		redis.clear();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		if (workers != null) workers.shutdownNow();
+		StockQuoteFixture.setRedis(null);
+		topology.close();
+		redis.close();
+	}
+
+	@Benchmark
+	public Quote getStockQuote() throws Exception {
+		String symbol = path.equals("SLOW") ? "SLOW" : "MISS"+missCounter.incrementAndGet();
+		if (virtual) return stockQuote.getStockQuoteAsync(symbol).toCompletableFuture().join();
+		return workers.submit(() -> stockQuote.getStockQuote(symbol)).get();
+	}
+}
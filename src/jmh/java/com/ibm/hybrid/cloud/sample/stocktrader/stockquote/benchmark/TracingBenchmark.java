@@ -0,0 +1,131 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.benchmark;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.StockQuote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteCache;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.RedisTopology;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test.RedisStandIn;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** What tracing and logging cost on the cache-hit paths of getStockQuote.  Each call runs inside a span standing in
+  * for the REST resource's, from a real OpenTelemetry SDK tracer that records every span (but exports nowhere).  With
+  * quote.tracing=resource that's the only span; with detailed, each inner step (such as the Redis read) gets its own
+  * child span, the same as when those steps were annotated with @WithSpan.  The log benchmarks compare a disabled FINE
+  * message built by concatenation with the same message behind an isLoggable guard. */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.util.logging.config.file=/dev/null") //so FINE is disabled, as in production
+public class TracingBenchmark {
+	private static final Logger logger = Logger.getLogger(TracingBenchmark.class.getName());
+	private static final String LOCAL_SYMBOL = "IBM"; //kept fresh in the local cache
+	private static final String REDIS_SYMBOL = "AAPL"; //kept fresh in Redis, but evicted from the local cache each time
+
+	@Param({"resource", "detailed"})
+	public String tracing;
+
+	public String symbol = LOCAL_SYMBOL; //not final, so the JIT can't fold the log message into a constant
+
+	private RedisStandIn redis;
+	private RedisTopology topology;
+	private SdkTracerProvider tracerProvider;
+	private Tracer tracer;
+	private StockQuote stockQuote;
+	private QuoteCache localCache;
+
+	@Setup
+	public void setup() throws Exception {
+		redis = new RedisStandIn();
+		stockQuote = new StockQuote();
+
+		topology = RedisTopology.standalone(redis.getURI(), StockQuote.getPoolConfig(), null);
+		StockQuoteFixture.setRedis(topology);
+		StockQuoteFixture.setAPIConnectClient(stockQuote, new StubAPIConnectClient(0));
+		stockQuote.start(); //with Redis already in place, this just sets up the caches
+		localCache = StockQuoteFixture.getLocalCache();
+
+		tracerProvider = SdkTracerProvider.builder().build();
+		tracer = tracerProvider.get("stock-quote");
+		StockQuoteFixture.setDetailTracer(tracing.equals("detailed") ? tracer : null);
+
+		stockQuote.getStockQuote(LOCAL_SYMBOL);
+		stockQuote.getStockQuote(REDIS_SYMBOL);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		StockQuoteFixture.setDetailTracer(null);
+		StockQuoteFixture.setRedis(null);
+		topology.close();
+		redis.close();
+		tracerProvider.close();
+	}
+
+	@Benchmark
+	public Quote localCacheHit() throws Exception {
+		return traced(LOCAL_SYMBOL);
+	}
+
+	@Benchmark
+	public Quote redisHit() throws Exception {
+		localCache.invalidate(REDIS_SYMBOL);
+		return traced(REDIS_SYMBOL);
+	}
+
+	@Benchmark
+	public void fineLogUnguarded() {
+		logger.fine("Used "+symbol+" from the local cache");
+	}
+
+	@Benchmark
+	public void fineLogGuarded() {
+		if (logger.isLoggable(Level.FINE)) logger.fine("Used "+symbol+" from the local cache");
+	}
+
+	private Quote traced(String symbol) throws Exception {
+		Span span = tracer.spanBuilder("StockQuote.getStockQuote").startSpan();
+		try (Scope scope = span.makeCurrent()) {
+			return stockQuote.getStockQuote(symbol);
+		} finally {
+			span.end();
+		}
+	}
+}
@@ -17,16 +17,58 @@
 package com.ibm.hybrid.cloud.sample.stocktrader.stockquote;
 
 import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.client.APIConnectClient;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.CacheWarmer;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.CallBudget;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.HotSymbols;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.MetricTotals;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.NegativeCache;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.PoolMonitor;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteBatcher;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteCache;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteFeed;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteFormatException;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteMetrics;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteMetrics.RedisOp;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteMetrics.Tier;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteSnapshot;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteStore;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteUpdates;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.RedisTopology;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.SingleFlight;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.UpstreamHealth;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.UpstreamLimiter;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.UpstreamSkippedException;
 import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.client.IEXClient;
 import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.QuoteJsonbResolver;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URI;
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
 //Logging (JSR 47)
 import java.util.logging.Level;
@@ -34,12 +76,14 @@ import java.util.logging.Logger;
 
 //JSON-B (JSR 367).  This largely replaces the need for JSON-P
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.json.bind.Jsonb;
-import jakarta.json.bind.JsonbBuilder;
 
 //JAX-RS 2.0 (JSR 339)
 import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 import jakarta.ws.rs.ApplicationPath;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
@@ -47,22 +91,42 @@ import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
 
 //CDI 1.2
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
 import jakarta.inject.Inject;
 import jakarta.enterprise.context.RequestScoped;
 
 //mpRestClient 1.0
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 
 //mpFaultTolerance 1.1
+import org.eclipse.microprofile.faulttolerance.Asynchronous;
 import org.eclipse.microprofile.faulttolerance.Fallback;
 
+//mpConfig
+import org.eclipse.microprofile.config.ConfigProvider;
+
+//mpMetrics
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricUnits;
+
 //Jedis (Java for Redis)
 import redis.clients.jedis.Jedis;
-import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.resps.ScanResult;
+import redis.clients.jedis.util.Pool;
 
 
 @ApplicationPath("/")
@@ -74,50 +138,91 @@ import redis.clients.jedis.JedisPoolConfig;
   * we've been maintaing the same OpenAPI contract as was required by API Connect. */
 public class StockQuote extends Application {
 	private static Logger logger = Logger.getLogger(StockQuote.class.getName());
-	private static JedisPool jedisPool = null;
+	private static RedisTopology redis = null; //where our Redis connections come from; see redis.topology
 	private static JedisPoolConfig jedisPoolConfig = null;
+	private static PoolMonitor poolMonitor = null; //times borrows from the pool, and resizes it if redis.pool.minIdle.auto is enabled
 
 	private static final long MINUTE_IN_MILLISECONDS = 60000;
+	private static final long METRIC_SYNC_INTERVAL = 5; //seconds between bringing the total counters up to date
 	private static final double ERROR       = -1;
 	private static final String FAIL_SYMBOL = "FAIL";
 	private static final String SLOW_SYMBOL = "SLOW";
-	private static final long   SLOW_TIME   = 60000; //one minute
 	private static final String TEST_SYMBOL = "TEST";
 	private static final double TEST_PRICE  = 123.45;
+	private static final String QUOTE_KEY_PREFIX = "quote:"; //keeps our keys in their own namespace, so we only SCAN our own data
+	private static final int    SCAN_COUNT  = 500; //how many keys to ask Redis to look at per SCAN (and so the max per MGET)
+	private static final String REFRESH_LOCK_PREFIX = "refresh:"; //outside of the quote namespace, so these don't show up in getAllCachedQuotes
+	private static final long   REFRESH_LOCK_POLL   = 50; //milliseconds between checks for another pod's refresh to land in Redis
+	private static final QuoteStore.Lookup UNREADABLE_QUOTE = new QuoteStore.Lookup(null, true); //marks a value in Redis that we couldn't parse, as opposed to there being none
+	private static final String RELEASE_LOCK_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end";
 
 	private static long cache_interval = 60; //default to 60 minutes
+	private static long slow_time = 60000; //milliseconds to wait before answering for SLOW; default to one minute
+	private static long refresh_lock_timeout = 0; //milliseconds; 0 means don't coordinate refreshes across pods
+	private static long hard_stale_interval = 0; //minutes; if greater than cache_interval, serve stale quotes up to this age while refreshing them
+	private static int refresh_queue_size = 50; //max number of background refreshes queued at once
+	private static int refresh_ahead_count = 0; //how many of the most popular symbols to refresh before they go stale; 0 disables this
+	private static long refresh_ahead_lead = 60; //seconds before going stale that a popular symbol gets refreshed
+	private static CallBudget refreshAheadBudget = null; //max upstream calls per minute for refreshing ahead
 	private static boolean initializationFailed = false;
-	private static SimpleDateFormat formatter = null;
+	private static volatile boolean started = false; //see start()
 	private static String iexApiKey = null;
-	private static HashMap<String, Quote> backupCache = null; //in case Redis is unavailable, don't use up all our monthly calls to IEX
+	private static QuoteStore quoteStore = new QuoteStore(QUOTE_KEY_PREFIX, QuoteStore.Format.JSON); //how quotes are stored in Redis
+	private static QuoteCache localCache = null; //checked before Redis, and in case Redis is unavailable, don't use up all our monthly calls to IEX
+	private static int local_cache_size = 1000; //max number of quotes held in memory in each pod
+	private static QuoteUpdates quoteUpdates = null; //keeps the local caches in all pods in sync, if NEAR_CACHE is enabled
+	private static final AtomicBoolean quoteUpdatesStarted = new AtomicBoolean(false);
+	private static CacheWarmer cacheWarmer = null; //fills the local cache at startup, and keeps the snapshot it can be filled from current
+	private static final AtomicBoolean warmUpStarted = new AtomicBoolean(false);
+	private static final SingleFlight singleFlight = new SingleFlight(); //one upstream call per symbol at a time
+	private static final LongAdder refreshLockSkips = new LongAdder();
+	private static final LongAdder unchangedRefreshes = new LongAdder(); //refreshes that got the same price as the stale quote
+	private static final Set<String> pendingRefreshes = ConcurrentHashMap.newKeySet(); //symbols queued for a background refresh
+	private static final LongAdder droppedRefreshes = new LongAdder();
+	private static final HotSymbols hotSymbols = new HotSymbols(); //decaying per-symbol request counts, for refreshing ahead
+	private static final AtomicBoolean refreshAheadStarted = new AtomicBoolean(false);
+	private static final AtomicBoolean poolAutoSizeStarted = new AtomicBoolean(false);
+	private static NegativeCache negativeCache = new NegativeCache(0, 0); //symbols the quote providers recently said they don't know
+	private static UpstreamHealth apiConnectHealth = new UpstreamHealth("API Connect", 5, 30000);
+	private static UpstreamHealth iexHealth = new UpstreamHealth("IEX", 5, 30000);
+	private static UpstreamLimiter apiConnectLimiter = null; //null if calls to API Connect aren't limited; see quote.limit.*
+	private static UpstreamLimiter iexLimiter = null;
+	private static volatile QuoteBatcher apiConnectBatcher = null; //null unless upstream calls are batched; see quote.batch.*
+	private static volatile QuoteBatcher iexBatcher = null;
+	private static volatile QuoteFeed quoteFeed = null; //streams price changes to the clients of GET /stream
+	private static volatile Tracer detailTracer = null; //only set if quote.tracing=detailed
+	private static volatile QuoteMetrics quoteMetrics = new QuoteMetrics(null); //replaced with one that records, once there's a MetricRegistry
+	private static MetricTotals metricTotals = null; //see registerMetrics
+	private static final AtomicBoolean quoteFeedStarted = new AtomicBoolean(false);
+	private static final AtomicBoolean quoteBatchingStarted = new AtomicBoolean(false);
+	private static ExecutorService virtualThreadExecutor = null; //if VIRTUAL_THREADS is enabled, getStockQuoteAsync runs the blocking path on these
 
 	private @Inject @RestClient APIConnectClient apiConnectClient;
 	private @Inject @RestClient IEXClient iexClient;
-
-	// Override API Connect Client URL if secret is configured to provide URL
-	static {
-		String mpUrlPropName = APIConnectClient.class.getName() + "/mp-rest/url";
-		String urlFromEnv = System.getenv("APIC_URL");
-		if ((urlFromEnv != null) && !urlFromEnv.isEmpty()) {
-			logger.info("Using API Connect URL from config map: " + urlFromEnv);
-			System.setProperty(mpUrlPropName, urlFromEnv);
-		} else {
-			logger.info("API Connect URL not found from env var from config map, so defaulting to value in jvm.options: " + System.getProperty(mpUrlPropName));
-		}
-
-		mpUrlPropName = IEXClient.class.getName() + "/mp-rest/url";
-		urlFromEnv = System.getenv("IEX_URL");
-		if ((urlFromEnv != null) && !urlFromEnv.isEmpty()) {
-			logger.info("Using IEX URL from config map: " + urlFromEnv);
-			System.setProperty(mpUrlPropName, urlFromEnv);
-		} else {
-			logger.info("IEX URL not found from env var from config map, so defaulting to value in jvm.options: " + System.getProperty(mpUrlPropName));
-		}
+	private @Inject MetricRegistry metricRegistry;
+	private @Inject Tracer tracer;
+	private @Resource(lookup = "java:comp/DefaultManagedExecutorService") ExecutorService managedExecutor;
+	private @Resource(lookup = "java:comp/DefaultManagedScheduledExecutorService") ScheduledExecutorService managedScheduler;
+	private @Resource(lookup = "java:comp/DefaultManagedThreadFactory") ThreadFactory managedThreadFactory;
+
+	// The quote provider URLs come from MicroProfile Config (see microprofile-config.properties), where the APIC_URL and
+	// IEX_URL environment variables override the defaults, so the REST clients pick them up whenever they're built
+	private static void readEnvironment() {
+		logger.info("Using API Connect URL: " + getConfig(APIConnectClient.class.getName() + "/mp-rest/url", String.class, null));
+		logger.info("Using IEX URL: " + getConfig(IEXClient.class.getName() + "/mp-rest/url", String.class, null));
 
 		iexApiKey = System.getenv("IEX_API_KEY");
 		if ((iexApiKey == null) || iexApiKey.isEmpty()) {
 			logger.warning("No API key provided for IEX.  If API Connect isn't available, fallback to direct calls to IEX will fail");
 		}
+
+		//read before connecting to Redis, since it affects the Redis pool configuration
+		if (Boolean.parseBoolean(System.getenv("VIRTUAL_THREADS"))) try { //looked up reflectively, as we still build for Java 17
+			virtualThreadExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			logger.info("Running blocking quote lookups for /async on virtual threads");
+		} catch (Throwable t) {
+			logger.warning("Virtual threads require Java 21 or later - using platform threads instead");
+		}
 	}
 
 	public static void main(String[] args) {
@@ -136,7 +241,27 @@ public class StockQuote extends Application {
 
 	public StockQuote() {
 		super();
+	}
+
+	/** Reads the environment, connects to Redis and starts the background work, the first time StockQuote is used,
+	  * rather than when the class is loaded or the bean constructed (both of which can happen while the app starts).
+	  * That way nothing is read or opened before a Liberty InstantOn checkpoint, so a restored pod picks up its own
+	  * environment, and doesn't try to use connections made while the image was being built.  main() and the
+	  * benchmarks, which run outside of Liberty, get here the same way, via their first call. */
+	public void start() {
+		if (started) return;
+		synchronized (StockQuote.class) {
+			if (started) return;
+			long begin = System.nanoTime();
+			readEnvironment();
+			configure();
+			initialize();
+			started = true;
+			logger.info("Started in "+(System.nanoTime()-begin)/1000000+" ms");
+		}
+	}
 
+	private static void configure() {
 		try {
 			//The following variable should be set in a Kubernetes secret, and
 			//made available to the app via a stanza in the deployment yaml
@@ -166,25 +291,29 @@ public class StockQuote extends Application {
 			    imagePullPolicy: Always
 			*/
 
-			if ((jedisPool == null) && !initializationFailed) try { //the pool is static; the connections within the pool are obtained as needed
+			if ((redis == null) && !initializationFailed) try { //the pools are static; the connections within the pools are obtained as needed
 				String redis_url = System.getenv("REDIS_URL");
 				URI jedisURI = new URI(redis_url);
 				logger.info("Initializing Redis pool using URL: "+redis_url);
 				// @rtclauss Add connection pool configuration to combat potentially stale connections
 				jedisPoolConfig = getPoolConfig();
 
-				jedisPool = new JedisPool(jedisPoolConfig, jedisURI);
-				if (jedisPool != null) logger.info("Redis pool initialized successfully!");
+				redis = getTopology(jedisURI, jedisPoolConfig);
+				if (redis != null) logger.info("Redis pool initialized successfully!");
+
+				Pool<Jedis> primaryPool = redis.getPrimaryPool();
+				if (primaryPool != null) { //there's no single pool to monitor in a Redis Cluster
+					poolMonitor = new PoolMonitor(primaryPool, getConfig("redis.pool.slowBorrow", Long.class, 5L),
+						getConfig("redis.pool.minIdle.floor", Integer.class, 1), jedisPoolConfig.getMaxIdle());
+					redis.setPoolMonitor(poolMonitor);
+				}
 			} catch (Throwable t) {
 				initializationFailed = true; //so we don't retry the above thousands of times and log big stack traces each time
 				logException(t);
 			}
 
 			//this is in a separate if block because the above Jedis stuff will throw an exception if not properly configured
-			if (backupCache == null) {
-				backupCache = new HashMap<String, Quote>();
-				formatter = new SimpleDateFormat("yyyy-MM-dd");
-
+			if (localCache == null) {
 				try {
 					String cache_string = System.getenv("CACHE_INTERVAL");
 					if (cache_string != null) {
@@ -193,6 +322,96 @@ public class StockQuote extends Application {
 				} catch (Throwable t) {
 					logger.warning("No cache interval set - defaulting to 60 minutes");
 				}
+
+				try {
+					String slow_string = System.getenv("SLOW_TIME");
+					if (slow_string != null) {
+						slow_time = Long.parseLong(slow_string);
+					}
+				} catch (Throwable t) {
+					logger.warning("Invalid slow time - defaulting to one minute");
+				}
+
+				try {
+					String lock_string = System.getenv("REFRESH_LOCK_TIMEOUT");
+					if (lock_string != null) {
+						refresh_lock_timeout = Long.parseLong(lock_string);
+					}
+				} catch (Throwable t) {
+					logger.warning("Invalid refresh lock timeout - refreshes won't be coordinated across pods");
+				}
+
+				try {
+					String hard_stale_string = System.getenv("HARD_STALE_INTERVAL");
+					if (hard_stale_string != null) {
+						hard_stale_interval = Long.parseLong(hard_stale_string);
+					}
+					String queue_string = System.getenv("REFRESH_QUEUE_SIZE");
+					if (queue_string != null) {
+						refresh_queue_size = Integer.parseInt(queue_string);
+					}
+				} catch (Throwable t) {
+					logger.warning("Invalid stale-while-revalidate settings - stale quotes will be refreshed synchronously");
+				}
+
+				try {
+					String count_string = System.getenv("REFRESH_AHEAD_COUNT");
+					if (count_string != null) {
+						refresh_ahead_count = Integer.parseInt(count_string);
+					}
+					String lead_string = System.getenv("REFRESH_AHEAD_LEAD");
+					if (lead_string != null) {
+						refresh_ahead_lead = Long.parseLong(lead_string);
+					}
+					String budget_string = System.getenv("REFRESH_AHEAD_BUDGET");
+					refreshAheadBudget = new CallBudget((budget_string != null) ? Integer.parseInt(budget_string) : 60);
+				} catch (Throwable t) {
+					refresh_ahead_count = 0;
+					logger.warning("Invalid refresh-ahead settings - popular symbols won't be refreshed ahead of going stale");
+				}
+				try {
+					String size_string = System.getenv("LOCAL_CACHE_SIZE");
+					if (size_string != null) {
+						local_cache_size = Integer.parseInt(size_string);
+					}
+				} catch (Throwable t) {
+					logger.warning("Invalid local cache size - defaulting to 1000 quotes");
+				}
+				localCache = new QuoteCache(local_cache_size, cache_interval*MINUTE_IN_MILLISECONDS);
+
+				negativeCache = new NegativeCache(getConfig("quote.negativeCache.ttl", Long.class, 60L)*1000, getConfig("quote.negativeCache.size", Integer.class, 10000));
+				int failureThreshold = getConfig("quote.upstream.failureThreshold", Integer.class, 5);
+				long retryInterval = getConfig("quote.upstream.retryInterval", Long.class, 30L)*1000;
+				apiConnectHealth = new UpstreamHealth("API Connect", failureThreshold, retryInterval);
+				iexHealth = new UpstreamHealth("IEX", failureThreshold, retryInterval);
+
+				QuoteStore.Format format = QuoteStore.Format.JSON;
+				try {
+					String format_string = System.getenv("QUOTE_FORMAT");
+					if (format_string != null) {
+						format = QuoteStore.Format.valueOf(format_string.toUpperCase());
+						logger.info("Storing quotes in Redis in "+format+" format");
+					}
+				} catch (Throwable t) {
+					logger.warning("Invalid quote format - defaulting to JSON");
+				}
+				quoteStore = new QuoteStore(QUOTE_KEY_PREFIX, format, (redis != null) && redis.isCluster());
+
+				long redis_ttl = getConfig("quote.redis.ttl", Long.class, 1440L); //minutes; 0 means quotes stay in Redis forever
+				long longest_served = Math.max(cache_interval, hard_stale_interval);
+				if ((redis_ttl > 0) && (redis_ttl < longest_served)) {
+					logger.warning("quote.redis.ttl of "+redis_ttl+" minutes would expire quotes before they stop being served - using "+longest_served+" minutes instead");
+					redis_ttl = longest_served;
+				}
+				quoteStore.setExpiry(redis_ttl*MINUTE_IN_MILLISECONDS, cache_interval*MINUTE_IN_MILLISECONDS);
+
+				apiConnectLimiter = getLimiter("apiConnect");
+				iexLimiter = getLimiter("iex");
+
+				if ((redis != null) && Boolean.parseBoolean(System.getenv("NEAR_CACHE"))) {
+					quoteUpdates = new QuoteUpdates(localCache, redis::connect);
+				}
+
 				logger.info("Initialization complete!");
 			}
 		} catch (Throwable t) {
@@ -200,39 +419,257 @@ public class StockQuote extends Application {
 		}
 	}
 
+	private void initialize() {
+		if ((tracer != null) && "detailed".equalsIgnoreCase(getConfig("quote.tracing", String.class, "resource"))) {
+			logger.info("Tracing the inner steps of each quote lookup, as well as the REST resources");
+			detailTracer = tracer;
+		}
+		startWarmUp();
+		startQuoteFeed();
+		startQuoteBatching();
+		registerMetrics();
+		startRefreshAhead();
+		startPoolAutoSize();
+		startQuoteUpdates();
+	}
+
+	@PreDestroy
+	private void shutdown() {
+		if (cacheWarmer != null) cacheWarmer.saveSnapshot(); //so the next pod starts from what we had
+		if ((quoteUpdates != null) && quoteUpdatesStarted.compareAndSet(true, false)) quoteUpdates.stop();
+		if (virtualThreadExecutor != null) virtualThreadExecutor.shutdown();
+		QuoteJsonbResolver.close();
+	}
+
+	/** Unless quote.warmup.timeout is 0, fill the local cache from the snapshot at quote.snapshot.path (if set) and then
+	  * from Redis, on the managed executor.  Until that's done (or the timeout has passed), the readiness check reports
+	  * us as not ready.  The snapshot is then saved every quote.snapshot.interval seconds. */
+	private void startWarmUp() {
+		if (!warmUpStarted.compareAndSet(false, true)) return; //only one instance should do this
+
+		long timeout = getConfig("quote.warmup.timeout", Long.class, 30L);
+		if (timeout <= 0) return;
+
+		String path = getConfig("quote.snapshot.path", String.class, "");
+		QuoteSnapshot snapshot = path.isEmpty() ? null : new QuoteSnapshot(Paths.get(path));
+		CacheWarmer warmer = new CacheWarmer(localCache, snapshot, local_cache_size, timeout*1000);
+		cacheWarmer = warmer;
+
+		if (managedExecutor != null) managedExecutor.execute(() -> warmer.warm(redis, quoteStore));
+		else warmer.warm(redis, quoteStore);
+
+		if ((snapshot != null) && (managedScheduler != null)) {
+			long period = getConfig("quote.snapshot.interval", Long.class, 60L);
+			managedScheduler.scheduleAtFixedRate(warmer::saveSnapshot, period, period, TimeUnit.SECONDS);
+			logger.info("Saving the local cache to "+path+" every "+period+" seconds");
+		}
+	}
+
+	/** Whether the local cache has been warmed up (or we've given up waiting for it), for the readiness check */
+	public boolean isWarmedUp() {
+		start(); //the readiness probe is usually what gets us going after a restore
+		CacheWarmer warmer = cacheWarmer;
+		return (warmer == null) || warmer.isReady();
+	}
+
+	/** If NEAR_CACHE is enabled, listen for the quotes other pods put in Redis, to keep our local cache in sync with theirs */
+	private void startQuoteUpdates() {
+		if ((quoteUpdates == null) || (managedThreadFactory == null)) return;
+		if (!quoteUpdatesStarted.compareAndSet(false, true)) return; //only one instance should do this
+
+		quoteUpdates.start(managedThreadFactory);
+	}
+
+	/** Expose the refresh statistics via mpMetrics */
+	private void registerMetrics() {
+		if (metricRegistry == null) return; //not running under CDI (such as via main())
+
+		quoteMetrics = new QuoteMetrics(metricRegistry);
+		metricTotals = new MetricTotals(metricRegistry); //running totals, as counters rather than gauges
+
+		metricRegistry.gauge(Metadata.builder().withName("quote.refresh.inflight")
+			.withDescription("Number of upstream quote calls currently in flight").build(), singleFlight::getInFlightCount);
+		metricTotals.register(Metadata.builder().withName("quote.refresh.upstream")
+			.withDescription("Number of upstream quote calls made to refresh the cache").build(), singleFlight::getLeaderCount);
+		metricTotals.register(Metadata.builder().withName("quote.refresh.coalesced")
+			.withDescription("Number of requests that shared another request's in-flight upstream call").build(), singleFlight::getCoalescedCount);
+		metricTotals.register(Metadata.builder().withName("quote.refresh.lockSkipped")
+			.withDescription("Number of refreshes skipped because another pod held the refresh lock").build(), refreshLockSkips::sum);
+		metricTotals.register(Metadata.builder().withName("quote.refresh.unchanged")
+			.withDescription("Number of refreshes that got the same price, so weren't passed on to the other pods").build(), unchangedRefreshes::sum);
+		metricRegistry.gauge(Metadata.builder().withName("quote.refresh.background.pending")
+			.withDescription("Number of stale quotes queued for a background refresh").build(), pendingRefreshes::size);
+		metricTotals.register(Metadata.builder().withName("quote.refresh.background.dropped")
+			.withDescription("Number of background refreshes not queued because the queue was full").build(), droppedRefreshes::sum);
+		metricRegistry.gauge(Metadata.builder().withName("quote.localCache.size")
+			.withDescription("Number of quotes held in this pod's local cache").build(), localCache::size);
+		metricTotals.register(Metadata.builder().withName("quote.localCache.hits")
+			.withDescription("Number of requests served from a fresh quote in the local cache").build(), localCache::getHitCount);
+		metricTotals.register(Metadata.builder().withName("quote.localCache.misses")
+			.withDescription("Number of requests that didn't find a fresh quote in the local cache").build(), localCache::getMissCount);
+		metricTotals.register(Metadata.builder().withName("quote.localCache.evictions")
+			.withDescription("Number of quotes evicted from the local cache to stay within its size limit").build(), localCache::getEvictionCount);
+		if (quoteUpdates != null) {
+			metricTotals.register(Metadata.builder().withName("quote.localCache.updatesReceived")
+				.withDescription("Number of quotes received from other pods to keep the local cache in sync").build(), quoteUpdates::getReceivedCount);
+		}
+		metricTotals.register(Metadata.builder().withName("quote.refreshAhead.hits")
+			.withDescription("Number of quotes refreshed ahead of expiry that were then requested").build(), hotSymbols::getHitCount);
+		metricTotals.register(Metadata.builder().withName("quote.refreshAhead.wasted")
+			.withDescription("Number of quotes refreshed ahead of expiry that nobody requested before the next refresh").build(), hotSymbols::getWastedCount);
+		if ((redis != null) && (redis.getPrimaryPool() != null)) {
+			Pool<Jedis> pool = redis.getPrimaryPool();
+			metricRegistry.gauge(Metadata.builder().withName("redis.pool.active")
+				.withDescription("Number of Redis connections currently in use").build(), pool::getNumActive);
+			metricRegistry.gauge(Metadata.builder().withName("redis.pool.idle")
+				.withDescription("Number of Redis connections idle in the pool").build(), pool::getNumIdle);
+			metricRegistry.gauge(Metadata.builder().withName("redis.pool.waiters")
+				.withDescription("Number of threads currently waiting for a Redis connection").build(), pool::getNumWaiters);
+			metricRegistry.gauge(Metadata.builder().withName("redis.pool.minIdle")
+				.withDescription("Number of idle Redis connections the pool tries to keep ready").build(), pool::getMinIdle);
+			metricTotals.register(Metadata.builder().withName("redis.pool.created")
+				.withDescription("Number of Redis connections opened").build(), pool::getCreatedCount);
+			metricTotals.register(Metadata.builder().withName("redis.pool.destroyed")
+				.withDescription("Number of Redis connections closed").build(), pool::getDestroyedCount);
+			metricRegistry.gauge(Metadata.builder().withName("redis.pool.borrowWait.max")
+				.withDescription("Longest wait so far for a Redis connection").withUnit(MetricUnits.MILLISECONDS).build(), () -> pool.getMaxBorrowWaitDuration().toMillis());
+		}
+		if (poolMonitor != null) {
+			poolMonitor.setBorrowWaitHistogram(metricRegistry.histogram(Metadata.builder().withName("redis.pool.borrowWait")
+				.withDescription("Time spent waiting for a Redis connection from the pool").withUnit(MetricUnits.MICROSECONDS).build()));
+			metricTotals.register(Metadata.builder().withName("redis.pool.resizes")
+				.withDescription("Number of times minIdle was changed by the pool auto-sizing").build(), poolMonitor::getResizeCount);
+		}
+		if (quoteFeed != null) {
+			QuoteFeed feed = quoteFeed;
+			metricRegistry.gauge(Metadata.builder().withName("quote.feed.subscribers")
+				.withDescription("Number of clients currently streaming quotes").build(), feed::getSubscriberCount);
+			metricRegistry.gauge(Metadata.builder().withName("quote.feed.symbols")
+				.withDescription("Number of symbols at least one streaming client is subscribed to").build(), () -> feed.getSymbols().size());
+			metricTotals.register(Metadata.builder().withName("quote.feed.sent")
+				.withDescription("Number of quotes sent to streaming clients").build(), feed::getSentCount);
+			metricTotals.register(Metadata.builder().withName("quote.feed.coalesced")
+				.withDescription("Number of quotes not sent to a slow streaming client because a newer one replaced it").build(), feed::getCoalescedCount);
+			metricTotals.register(Metadata.builder().withName("quote.feed.dropped")
+				.withDescription("Number of streaming clients dropped after a failed send").build(), feed::getDroppedCount);
+		}
+		metricRegistry.gauge(Metadata.builder().withName("quote.negativeCache.size")
+			.withDescription("Number of symbols the quote providers recently said they don't know").build(), negativeCache::size);
+		metricTotals.register(Metadata.builder().withName("quote.negativeCache.hits")
+			.withDescription("Number of upstream calls skipped because the provider recently said it doesn't know the symbol").build(), negativeCache::getHitCount);
+		metricTotals.register(Metadata.builder().withName("quote.negativeCache.misses")
+			.withDescription("Number of upstream calls made for symbols not in the negative cache").build(), negativeCache::getMissCount);
+		if (cacheWarmer != null) {
+			CacheWarmer warmer = cacheWarmer;
+			metricTotals.register(Metadata.builder().withName("quote.warmup.snapshot")
+				.withDescription("Number of quotes loaded into the local cache from the snapshot at startup").build(), warmer::getSnapshotCount);
+			metricTotals.register(Metadata.builder().withName("quote.warmup.redis")
+				.withDescription("Number of quotes loaded into the local cache from Redis at startup").build(), warmer::getRedisCount);
+		}
+		registerUpstreamMetrics("apiConnect", "API Connect", apiConnectHealth, apiConnectLimiter);
+		registerUpstreamMetrics("iex", "IEX", iexHealth, iexLimiter);
+		registerBatchMetrics("apiConnect", "API Connect", apiConnectBatcher);
+		registerBatchMetrics("iex", "IEX", iexBatcher);
+		if (refreshAheadBudget != null) {
+			metricTotals.register(Metadata.builder().withName("quote.refreshAhead.budget.consumed")
+				.withDescription("Number of upstream calls made to refresh quotes ahead of expiry").build(), refreshAheadBudget::getConsumed);
+			metricRegistry.gauge(Metadata.builder().withName("quote.refreshAhead.budget.remaining")
+				.withDescription("Number of refresh-ahead upstream calls left in the current minute").build(), refreshAheadBudget::getRemaining);
+		}
+
+		metricTotals.sync();
+		if (managedScheduler != null) managedScheduler.scheduleAtFixedRate(metricTotals::sync, METRIC_SYNC_INTERVAL, METRIC_SYNC_INTERVAL, TimeUnit.SECONDS);
+	}
+
+	private void registerUpstreamMetrics(String name, String provider, UpstreamHealth health, UpstreamLimiter limiter) {
+		metricRegistry.gauge(Metadata.builder().withName("quote.upstream."+name+".down")
+			.withDescription("1 if "+provider+" is considered down, so calls to it are being skipped, otherwise 0").build(), () -> health.isDown() ? 1 : 0);
+		metricTotals.register(Metadata.builder().withName("quote.upstream."+name+".failures")
+			.withDescription("Number of failed calls to "+provider).build(), health::getFailureCount);
+		metricTotals.register(Metadata.builder().withName("quote.upstream."+name+".skipped")
+			.withDescription("Number of calls to "+provider+" skipped because it was down").build(), health::getSkippedCount);
+		if (limiter != null) {
+			metricRegistry.gauge(Metadata.builder().withName("quote.limit."+name+".remaining")
+				.withDescription("Number of calls to "+provider+" that could be made right now without going over the rate limit (-1 if unlimited)").build(), limiter::getRemaining);
+			metricRegistry.gauge(Metadata.builder().withName("quote.limit."+name+".monthlyRemaining")
+				.withDescription("Number of calls to "+provider+" left in this month's quota (-1 if unlimited)").build(), limiter::getMonthlyRemaining);
+			metricTotals.register(Metadata.builder().withName("quote.limit."+name+".denied")
+				.withDescription("Number of calls to "+provider+" not made because they'd have gone over a limit").build(), limiter::getDeniedCount);
+		}
+	}
+
+	private void registerBatchMetrics(String name, String provider, QuoteBatcher batcher) {
+		if (batcher == null) return;
+		metricTotals.register(Metadata.builder().withName("quote.batch."+name+".calls")
+			.withDescription("Number of batched calls made to "+provider).build(), batcher::getBatchCount);
+		metricTotals.register(Metadata.builder().withName("quote.batch."+name+".symbols")
+			.withDescription("Number of symbols asked for across all of the batched calls to "+provider).build(), batcher::getSymbolCount);
+	}
+
+	/** Set up the limits on calls to the specified quote provider, from quote.limit.{name}.rate, .burst and .monthly,
+	  * or return null if it has none.  With quote.limit.mode=cluster, the limits are shared by all pods, via Redis. */
+	private static UpstreamLimiter getLimiter(String name) {
+		int rate = getConfig("quote.limit."+name+".rate", Integer.class, 0);
+		long monthly = getConfig("quote.limit."+name+".monthly", Long.class, 0L);
+		if ((rate <= 0) && (monthly <= 0)) return null;
+
+		int burst = getConfig("quote.limit."+name+".burst", Integer.class, rate);
+		long reserve = monthly * getConfig("quote.limit.reserve", Integer.class, 5) / 100;
+		boolean clusterWide = "cluster".equalsIgnoreCase(getConfig("quote.limit.mode", String.class, "pod"));
+		if (clusterWide && (redis == null)) logger.warning("Redis not available, so limiting calls to "+name+" per pod");
+
+		logger.info("Limiting calls to "+name+" to "+rate+" per second and "+monthly+" per month (0 means no limit)");
+		return new UpstreamLimiter(name, rate, burst, monthly, reserve, (clusterWide && (redis != null)) ? redis::getPrimary : null);
+	}
+
 	@GET
 	@Path("/")
 	@Produces(MediaType.APPLICATION_JSON)
 //	@RolesAllowed({"StockTrader", "StockViewer"}) //Couldn't get this to work; had to do it through the web.xml instead :(
-	/**  Get all stock quotes in Redis.  This is a read-only operation that just returns what's already there, without any refreshing */
+	/**  Get all stock quotes in Redis.  This is a read-only operation that just returns what's already there, without any refreshing.
+	  *  The keys are walked incrementally via SCAN (rather than KEYS, which blocks Redis), each page of values is read with a
+	  *  single MGET, and the JSON array is streamed to the client page by page rather than being built up in memory first.
+	  *  In a Redis Cluster, each primary's keys are walked in turn.  Reads go to replicas, if there are any. */
 	@WithSpan
-	public List<Quote> getAllCachedQuotes() {
-		ArrayList<Quote> quotes = new ArrayList<>();
-
-		if (jedisPool != null) {
-			// @rtclauss try-with-resources to release the jedis instance back to the pool when done
-			try (Jedis jedis = jedisPool.getResource();){ //Get a connection from the pool
-				logger.finest("getAllCachedQuotes " + getPoolCurrentUsage());
-
-				Set<String> keys = jedis.keys("*");
-				Iterator<String> iter = keys.iterator();
-				while (iter.hasNext()) {
-					String key = iter.next();
-					String cachedValue = jedis.get(key);
-					logger.fine("Found this in Redis for "+key+": "+cachedValue);
-
-					Jsonb jsonb = JsonbBuilder.create();
-					Quote quote = jsonb.fromJson(cachedValue, Quote.class);
+	public StreamingOutput getAllCachedQuotes() {
+		start();
+		return output -> {
+			Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+			writer.write('[');
+
+			if (redis != null) {
+				ScanParams scanParams = quoteStore.scanParams(SCAN_COUNT);
+				boolean first = true;
+				shards: for (Supplier<Jedis> shard : redis.getShardReaders()) {
+					String cursor = ScanParams.SCAN_POINTER_START;
+					do {
+						List<Quote> cachedQuotes = null;
+						// @rtclauss try-with-resources to release the jedis instance back to the pool when done
+						try (Jedis jedis = shard.get();) { //Get a connection from the pool, just for this page
+							ScanResult<String> page = jedis.scan(cursor, scanParams, quoteStore.scanType());
+							cursor = page.getCursor();
+							cachedQuotes = quoteStore.getAll(jedis, page.getResult()); //one round trip for the whole page
+						} catch (Throwable t) {
+							logRedisException(t);
+							break shards; //return what we've streamed so far
+						}
 
-					quotes.add(quote);
+						if (cachedQuotes != null) for (Quote cachedQuote : cachedQuotes) {
+							if (cachedQuote == null) continue; //expired between the SCAN and the read, or unreadable
+							if (!first) writer.write(',');
+							writer.write(cachedQuote.toString());
+							first = false;
+						}
+						writer.flush(); //send this page on to the client before fetching the next one
+					} while (!cursor.equals(ScanParams.SCAN_POINTER_START));
 				}
-			} catch (Throwable t) {
-				logException(t);
+			} else {
+				logger.warning("Redis is not configured in getAllCachedQuotes()");
 			}
-		} else {
-			logger.warning("jedisPool is null in getAllCachedQuotes()");
-		}
-		return quotes;
+
+			writer.write(']');
+			writer.flush();
+		};
 	}
 
 	@POST
@@ -242,9 +679,16 @@ public class StockQuote extends Application {
 //	@RolesAllowed({"StockTrader", "StockViewer"}) //Couldn't get this to work; had to do it through the web.xml instead :(
 	/**  Set stock quote into cache.  Call this if IEX is failing, to load the backup cache with some stock prices */
 	public void updateCache(@PathParam("symbol") String symbol, @QueryParam("price") double price) throws IOException {
-		logger.fine("Updating backupCache for "+symbol);
+		start();
+		if (logger.isLoggable(Level.FINE)) logger.fine("Updating backup cache for "+symbol);
 		Quote quote = getTestQuote(symbol, price);
-		backupCache.put(symbol, quote);
+		localCache.putBackup(symbol, quote);
+
+		if ((quoteUpdates != null) && (redis != null)) try (Jedis jedis = redis.getPrimary(quoteStore.key(symbol));) {
+			jedis.publish(QuoteUpdates.CHANNEL, quoteUpdates.backupMessage(symbol, quote)); //so every pod has the same backup
+		} catch (Throwable t) {
+			logRedisException(t);
+		}
 	}
 
 	@GET
@@ -255,186 +699,1102 @@ public class StockQuote extends Application {
 	/**  Get stock quote from API Connect */
 	@WithSpan
 	public Quote getStockQuote(@PathParam("symbol") String symbol) throws IOException {
-		if (symbol.equalsIgnoreCase(TEST_SYMBOL)) return getTestQuote(TEST_SYMBOL, TEST_PRICE);
-		if (symbol.equalsIgnoreCase(SLOW_SYMBOL)) return getSlowQuote();
+		start();
+		long start = System.nanoTime();
+		if (symbol.equalsIgnoreCase(TEST_SYMBOL)) return resolved(getTestQuote(TEST_SYMBOL, TEST_PRICE), Tier.TEST, start);
+		if (symbol.equalsIgnoreCase(SLOW_SYMBOL)) return resolved(getSlowQuote(), Tier.TEST, start);
 		if (symbol.equalsIgnoreCase(FAIL_SYMBOL)) { //to help test Istio retry policies
 			logger.info("Throwing a RuntimeException for symbol FAIL!");
 			throw new RuntimeException("Failing as requested, since you asked for FAIL!");
 		}
 
-		Quote quote = null;
-		// @rtclauss try-with-resources to release the jedis instance back to the pool when done
-		if (jedisPool != null) try (Jedis jedis = jedisPool.getResource();) { //Get a connection from the pool
-			//following getPoolCurrentUsage() call is kind of expensive, so only do it if the logging level is cranked to FINEST
-			if (logger.isLoggable(Level.FINEST)) logger.finest("getStockQuote " + getPoolCurrentUsage());
-			String cachedValue = null;
+		if (refresh_ahead_count > 0) hotSymbols.recordAccess(symbol);
 
-			if (jedis==null) {
-				logger.warning("Unable to get connection to Redis from pool");
-			} else {
-				logger.fine("Getting "+symbol+" from Redis");
-				cachedValue = jedis.get(symbol); //Try to get it from Redis
-			}
-			if (cachedValue == null) { //It wasn't in Redis
-				logger.fine(symbol+" wasn't in Redis so we will try to put it there");
-				quote = apiConnectClient.getStockQuoteViaAPIConnect(symbol); //so go get it like we did before we'd ever heard of Redis
-				logger.fine("Got quote for "+symbol+" from API Connect");
-				if (jedis != null) {
-					jedis.set(symbol, quote.toString()); //Put in Redis so it's there next time we ask
-					logger.fine("Put "+symbol+" in Redis");
+		Quote quote = localCache.get(symbol); //a fresh copy in this pod saves the trip to Redis
+		if (quote != null) {
+			if (logger.isLoggable(Level.FINE)) logger.fine("Used "+symbol+" from the local cache");
+			return resolved(quote, Tier.LOCAL, start);
+		}
+
+		Tier tier = Tier.REDIS;
+		boolean calledUpstream = false; //whether API Connect was already called (or skipped) for this request
+		if (redis != null) try {
+			boolean cached = false;
+			boolean stale = true; //an unreadable quote counts as too stale
+
+			long redisStart = System.nanoTime();
+			try {
+				if (logger.isLoggable(Level.FINE)) logger.fine("Getting "+symbol+" from Redis");
+				QuoteStore.Lookup lookup = getCachedQuote(symbol); //Try to get it from Redis
+				if (lookup != null) {
+					cached = true;
+					quote = lookup.getQuote();
+					stale = lookup.isStale();
 				}
-			} else {
-				logger.fine("Got this from Redis for "+symbol+": "+cachedValue);
+			} catch (QuoteFormatException t4) {
+				cached = true;
+				if (logger.isLoggable(Level.INFO)) logger.info("Unable to parse quote obtained from Redis for "+symbol+".  Proceeding as if the quote was too stale.");
+				logException(t4);
+			}
+			quoteMetrics.redis(RedisOp.GET, redisStart);
+			quoteMetrics.redisLookup(quote != null);
 
+			if (!cached) { //It wasn't in Redis
+				if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" wasn't in Redis so we will try to put it there");
 				try {
-					Jsonb jsonb = JsonbBuilder.create();
-					quote = jsonb.fromJson(cachedValue, Quote.class);
-				} catch (Throwable t4) {
-					logger.info("Unable to parse JSON obtained from Redis for "+symbol+".  Proceeding as if the quote was too stale.");
-					logException(t4);
+					quote = refreshQuote(symbol, null, false); //so go get it like we did before we'd ever heard of Redis
+					tier = Tier.API_CONNECT;
+				} catch (JedisException t6) {
+					throw t6; //a Redis problem, not an upstream one, so handled like any other below
+				} catch (Throwable t6) {
+					logUpstreamException(symbol, t6);
 				}
-
-				if (isStale(quote)) {
-					logger.info(symbol+" in Redis was too stale");
-					try {
-						quote = apiConnectClient.getStockQuoteViaAPIConnect(symbol); //so go get a less stale value
-						if (quote != null) {
-							logger.fine("Got fresh quote for "+symbol+" from API Connect");
-							quote.setTime(System.currentTimeMillis()); //so we don't report stale after the market has closed or on weekends
-							jedis.set(symbol, quote.toString()); //Put in Redis so it's there next time we ask
-							backupCache.put(symbol, quote);
-							logger.fine("Refreshed "+symbol+" in Redis");
-						} else {
-							logger.warning("Got null from the stock quote provider");
+				calledUpstream = true;
+			} else {
+				if (logger.isLoggable(Level.FINE)) logger.fine("Got this from Redis for "+symbol+": "+quote);
+
+				if (stale) {
+					if (!isTooStaleToServe(quote) && refreshInBackground(symbol, quote)) {
+						if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" in Redis was stale, so using it while it gets refreshed in the background");
+						quoteMetrics.stale(true);
+					} else {
+						if (logger.isLoggable(Level.INFO)) logger.info(symbol+" in Redis was too stale");
+						quoteMetrics.stale(false);
+						try {
+							quote = refreshQuote(symbol, quote, true); //so go get a less stale value
+							tier = Tier.API_CONNECT;
+						} catch (Throwable t5) {
+							logger.info("Error getting fresh quote; using cached value instead");
+							logException(t5);
 						}
-					} catch (Throwable t5) {
-						logger.info("Error getting fresh quote; using cached value instead");
-						logException(t5);
 					}
 				} else {
-					logger.fine("Used "+symbol+" from Redis");
+					if (logger.isLoggable(Level.FINE)) logger.fine("Used "+symbol+" from Redis");
+					localCache.put(symbol, quote);
 				}
 			}
 
 			logger.fine("Completed getting stock quote - releasing Redis resources automatically");
 		} catch (Throwable t) {
-			logException(t);
+			logRedisException(t);
 
 		} else {
 			//Redis not configured.  Fall back to the old-fashioned direct approach
-			logger.info("Redis not available, so resorting to using a per-pod static HashMap for caching.  Bounce pod to refresh the static backup cache");
+			logger.info("Redis not available, so resorting to using just the local cache in this pod");
 		}
 	
+		if ((quote == null) && calledUpstream) { //Redis was fine, but API Connect had nothing, so don't just ask it again
+			Quote backupQuote = localCache.getAnyAge(symbol);
+			if (backupQuote != null) return resolved(backupQuote, Tier.BACKUP, start);
+			return resolved(getTestQuote(symbol, ERROR), Tier.ERROR, start);
+		}
+
 		if (quote == null) { //give up on Redis and do it the old fashioned way
 			logger.warning("Something went wrong getting the quote.  Falling back to non-Redis approach, with the backup cache");
-			quote = backupCache.get(symbol);
-			if (quote != null) {
-				logger.fine(symbol+" found in backup cache");
-			} else try { //don't bother with cache staleness if Redis isn't configured (bounce pod to get fresh)
-				logger.fine(symbol+" not found in backup cache, so driving call directly to API Connect");
-				quote = apiConnectClient.getStockQuoteViaAPIConnect(symbol);
-				logger.fine("Got quote for "+symbol+" from API Connect - adding to the backup cache");
-				backupCache.put(symbol, quote);
+			Quote backupQuote = localCache.getAnyAge(symbol);
+			if ((backupQuote != null) && (redis != null)) { //Redis is having trouble, so don't use up our calls to the quote provider
+				if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" found in backup cache");
+				quote = backupQuote;
+				tier = Tier.BACKUP;
+			} else try { //without Redis, the local cache is all we have, so its expired entries need refreshing
+				if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" not fresh in backup cache, so driving call directly to API Connect");
+				quote = callAPIConnect(symbol, backupQuote != null);
+				if (logger.isLoggable(Level.FINE)) logger.fine("Got quote for "+symbol+" from API Connect - adding to the backup cache");
+				localCache.put(symbol, quote);
+				tier = Tier.API_CONNECT;
 			} catch (Throwable t3) {
 				logException(t3);
-				return getTestQuote(symbol, ERROR);
+				if (backupQuote != null) return resolved(backupQuote, Tier.BACKUP, start);
+				return resolved(getTestQuote(symbol, ERROR), Tier.ERROR, start);
 			}
 		}
 
+		return resolved(quote, tier, start);
+	}
+
+	/** Record which tier a quote request was resolved from, and how long it took */
+	private static Quote resolved(Quote quote, Tier tier, long start) {
+		quoteMetrics.resolved(tier, start);
 		return quote;
 	}
 
+	/** Get the quote for the specified symbol from API Connect and put it in Redis.  Concurrent requests for the same
+	  * symbol within this pod share a single call.  If REFRESH_LOCK_TIMEOUT is set, a short-lived Redis lock also makes
+	  * sure only one pod at a time refreshes a given symbol; the others keep using what's cached in the meantime.
+	  * A Redis connection is only borrowed for each Redis command, so a slow quote provider doesn't tie up the pool. */
+	private Quote refreshQuote(String symbol, Quote cachedQuote, boolean refresh) throws Exception {
+		return singleFlight.execute(symbol, () -> {
+			String lockToken = null;
+			if (refresh_lock_timeout > 0) {
+				lockToken = acquireRefreshLock(symbol);
+				if (lockToken == null) { //another pod is already refreshing this symbol
+					Quote quote = (cachedQuote != null) ? cachedQuote : waitForRefresh(symbol);
+					if (quote != null) {
+						if (logger.isLoggable(Level.FINE)) logger.fine("Another pod is refreshing "+symbol+", so using the cached value");
+						refreshLockSkips.increment();
+						return quote;
+					}
+				}
+			}
+
+			try {
+				Quote quote = callAPIConnect(symbol, cachedQuote != null);
+				if (quote == null) {
+					logger.warning("Got null from the stock quote provider");
+					return null;
+				}
+				if (logger.isLoggable(Level.FINE)) logger.fine("Got quote for "+symbol+" from API Connect");
+				if (refresh) quote.setTime(System.currentTimeMillis()); //so we don't report stale after the market has closed or on weekends
+				try (Jedis jedis = redis.getPrimary(quoteStore.key(symbol));) {
+					cacheQuote(jedis, symbol, quote, cachedQuote); //Put in Redis so it's there next time we ask
+					if (logger.isLoggable(Level.FINE)) logger.fine("Put "+symbol+" in Redis");
+				} catch (Throwable t) { //we still got the quote, so return it anyway
+					logRedisException(t);
+				}
+				localCache.put(symbol, quote);
+				publishQuote(symbol, quote);
+				return quote;
+			} finally {
+				if (lockToken != null) releaseRefreshLock(symbol, lockToken);
+			}
+		});
+	}
+
+	/** Put the quote in Redis, and if NEAR_CACHE is enabled, tell the other pods about it, all in one round trip.  If a
+	  * refresh got the same price as the previous (stale) quote, it's still written (with its new time, in the same round
+	  * trip), but the other pods aren't told: their copies of the old one just expire, and they pick this one up from
+	  * Redis, so there's no need to push the same price to every pod. */
+	private static void cacheQuote(Jedis jedis, String symbol, Quote quote, Quote previous) {
+		long start = System.nanoTime();
+		Span span = startDetailSpan("StockQuote.cacheQuote");
+		try {
+			boolean unchanged = (previous != null) && !quote.priceChanged(previous);
+			if (unchanged) unchangedRefreshes.increment();
+			if ((quoteUpdates == null) || unchanged) {
+				quoteStore.set(jedis, symbol, quote);
+			} else {
+				Pipeline pipeline = jedis.pipelined();
+				quoteStore.set(pipeline, symbol, quote);
+				pipeline.publish(QuoteUpdates.CHANNEL, quoteUpdates.updateMessage(symbol, quote));
+				pipeline.sync();
+			}
+		} finally {
+			endDetailSpan(span);
+		}
+		quoteMetrics.redis(RedisOp.SET, start);
+	}
+
+	/** Read the quote for the specified symbol from Redis, and whether it's stale, or return null if it isn't there (or
+	  * has expired).  If there are replicas, one
+	  * of those gets asked first; the primary is only asked if the replica can't be reached or doesn't have the quote
+	  * (replication is asynchronous, so a quote another pod just wrote might not have reached the replica yet, and a
+	  * round trip to the primary is a lot cheaper than an unnecessary call to the quote provider) */
+	private static QuoteStore.Lookup getCachedQuote(String symbol) throws QuoteFormatException {
+		Span span = startDetailSpan("StockQuote.getCachedQuote");
+		try {
+			String key = quoteStore.key(symbol);
+			if (redis.hasReplicas()) {
+				try (Jedis jedis = redis.getReplica(key);) {
+					QuoteStore.Lookup lookup = quoteStore.lookup(jedis, symbol);
+					if (lookup != null) return lookup;
+				} catch (JedisConnectionException e) {
+					if (logger.isLoggable(Level.FINE)) logger.fine("Unable to read "+symbol+" from a Redis replica, so reading it from the primary: "+e.getMessage());
+					redis.recover(e);
+				}
+			}
+			try (Jedis jedis = redis.getPrimary(key);) {
+				return quoteStore.lookup(jedis, symbol);
+			}
+		} finally {
+			endDetailSpan(span);
+		}
+	}
+
+	/** Same as getCachedQuote, but for a batch of symbols, read with one round trip per Redis node that has any of them
+	  * (plus one to its primary, if its replica was missing any).  Symbols that aren't in Redis, or can't be read, are
+	  * left out of the returned map. */
+	private static Map<String, QuoteStore.Lookup> getCachedQuotes(List<String> symbols) {
+		Span span = startDetailSpan("StockQuote.getCachedQuotes");
+		try {
+			HashMap<String, QuoteStore.Lookup> cachedQuotes = new HashMap<>();
+			for (List<String> shardSymbols : groupByShard(symbols).values()) {
+				List<String> missing = shardSymbols;
+				if (redis.hasReplicas()) try (Jedis jedis = redis.getReplica(quoteStore.key(shardSymbols.get(0)));) {
+					missing = getCachedQuotes(jedis, shardSymbols, cachedQuotes);
+				} catch (JedisConnectionException e) {
+					if (logger.isLoggable(Level.FINE)) logger.fine("Unable to read from a Redis replica, so reading from the primary: "+e.getMessage());
+					redis.recover(e);
+				}
+				if (!missing.isEmpty()) try (Jedis jedis = redis.getPrimary(quoteStore.key(missing.get(0)));) {
+					getCachedQuotes(jedis, missing, cachedQuotes);
+				}
+			}
+			return cachedQuotes;
+		} finally {
+			endDetailSpan(span);
+		}
+	}
+
+	/** Reads the specified symbols in one round trip, adding the ones found to cachedQuotes and returning the others */
+	private static List<String> getCachedQuotes(Jedis jedis, List<String> symbols, Map<String, QuoteStore.Lookup> cachedQuotes) {
+		List<QuoteStore.Lookup> quotesFromRedis = quoteStore.lookupAll(jedis, symbols);
+		ArrayList<String> missing = new ArrayList<>();
+		for (int index = 0; index < symbols.size(); index++) {
+			QuoteStore.Lookup cachedQuote = quotesFromRedis.get(index);
+			if (cachedQuote != null) cachedQuotes.put(symbols.get(index), cachedQuote);
+			else missing.add(symbols.get(index));
+		}
+		return missing;
+	}
+
+	/** Splits up the specified symbols by the Redis node that holds them (there's only one, except in a Redis Cluster) */
+	private static Map<Object, List<String>> groupByShard(Collection<String> symbols) {
+		LinkedHashMap<Object, List<String>> shards = new LinkedHashMap<>();
+		for (String symbol : symbols) {
+			shards.computeIfAbsent(redis.getShard(quoteStore.key(symbol)), shard -> new ArrayList<>()).add(symbol);
+		}
+		return shards;
+	}
+
+	/** Returns a token identifying our ownership of the refresh lock for the specified symbol, or null if another pod has it */
+	private static String acquireRefreshLock(String symbol) {
+		String token = UUID.randomUUID().toString();
+		String result;
+		try (Jedis jedis = redis.getPrimary(REFRESH_LOCK_PREFIX+symbol);) {
+			result = jedis.set(REFRESH_LOCK_PREFIX+symbol, token, SetParams.setParams().nx().px(refresh_lock_timeout));
+		}
+		return "OK".equals(result) ? token : null;
+	}
+
+	/** Only delete the lock if it's still ours (it might have expired and been taken by another pod in the meantime) */
+	private static void releaseRefreshLock(String symbol, String token) {
+		try (Jedis jedis = redis.getPrimary(REFRESH_LOCK_PREFIX+symbol);) {
+			jedis.eval(RELEASE_LOCK_SCRIPT, Collections.singletonList(REFRESH_LOCK_PREFIX+symbol), Collections.singletonList(token));
+		} catch (Throwable t) {
+			logRedisException(t); //not fatal, as the lock will expire on its own
+		}
+	}
+
+	/** Nothing is cached yet, but another pod is getting it, so give it until the lock expires to show up in Redis
+	  * (on the primary, so we see it as soon as it's written) */
+	private static Quote waitForRefresh(String symbol) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + refresh_lock_timeout;
+		while (System.currentTimeMillis() < deadline) {
+			Thread.sleep(REFRESH_LOCK_POLL);
+			try (Jedis jedis = redis.getPrimary(quoteStore.key(symbol));) {
+				Quote quote = quoteStore.get(jedis, symbol);
+				if (quote != null) return quote;
+			} catch (QuoteFormatException e) {
+				logException(e);
+				return null;
+			}
+		}
+		return null;
+	}
+
+	@GET
+	@Path("/async/{symbol}")
+	@Produces(MediaType.APPLICATION_JSON)
+	@Asynchronous
+	@Fallback(fallbackMethod = "getStockQuoteViaIEXAsync")
+//	@RolesAllowed({"StockTrader", "StockViewer"}) //Couldn't get this to work; had to do it through the web.xml instead :(
+	/**  Same as getStockQuote, but no thread waits on the quote provider (or on SLOW): the request is resumed when the
+	  *  quote arrives.  A local cache hit completes right away; the Redis round trips run on the managed executor, and
+	  *  API Connect is called via the async REST client.  Failures fall back to IEX and the backup cache, as above. */
+	@WithSpan
+	public CompletionStage<Quote> getStockQuoteAsync(@PathParam("symbol") String symbol) {
+		start();
+		if (virtualThreadExecutor != null) { //blocking is cheap on a virtual thread, so just run the same code as GET /{symbol}
+			return supplyAsync(() -> getStockQuote(symbol), virtualThreadExecutor);
+		}
+
+		if (symbol.equalsIgnoreCase(TEST_SYMBOL)) return CompletableFuture.completedFuture(getTestQuote(TEST_SYMBOL, TEST_PRICE));
+		if (symbol.equalsIgnoreCase(SLOW_SYMBOL)) { //same one minute delay as getSlowQuote, but without a sleeping thread
+			Executor delayed = CompletableFuture.delayedExecutor(slow_time, TimeUnit.MILLISECONDS, asyncExecutor());
+			return CompletableFuture.supplyAsync(() -> getTestQuote(SLOW_SYMBOL, TEST_PRICE), delayed);
+		}
+		if (symbol.equalsIgnoreCase(FAIL_SYMBOL)) { //to help test Istio retry policies
+			logger.info("Failing the CompletionStage for symbol FAIL!");
+			return CompletableFuture.failedFuture(new RuntimeException("Failing as requested, since you asked for FAIL!"));
+		}
+
+		if (refresh_ahead_count > 0) hotSymbols.recordAccess(symbol);
+
+		Quote quote = localCache.get(symbol); //a fresh copy in this pod saves the trip to Redis
+		if (quote != null) {
+			if (logger.isLoggable(Level.FINE)) logger.fine("Used "+symbol+" from the local cache");
+			return CompletableFuture.completedFuture(quote);
+		}
+
+		if (redis == null) {
+			logger.info("Redis not available, so resorting to using just the local cache in this pod");
+			return getBackupQuoteAsync(symbol);
+		}
+
+		return supplyAsync(() -> {
+			try {
+				if (logger.isLoggable(Level.FINE)) logger.fine("Getting "+symbol+" from Redis");
+				return Optional.ofNullable(getCachedQuote(symbol)); //empty if it isn't in Redis
+			} catch (QuoteFormatException e) {
+				if (logger.isLoggable(Level.INFO)) logger.info("Unable to parse quote obtained from Redis for "+symbol+".  Proceeding as if the quote was too stale.");
+				logException(e);
+				return Optional.of(UNREADABLE_QUOTE);
+			}
+		}).thenCompose(cached -> {
+			if (cached.isEmpty()) { //It wasn't in Redis
+				if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" wasn't in Redis so we will try to put it there");
+				return refreshQuoteAsync(symbol, null, false).handle((fetched, t) -> {
+					if (t != null) {
+						while ((t instanceof CompletionException) && (t.getCause() != null)) t = t.getCause();
+						if (t instanceof JedisException) throw (JedisException) t; //a Redis problem, not an upstream one, so handled like any other below
+						logUpstreamException(symbol, t);
+					}
+					return (fetched != null) ? fetched : getBackupOrErrorQuote(symbol); //don't just ask API Connect again
+				});
+			}
+
+			Quote cachedQuote = cached.get().getQuote(); //null if it couldn't be read, which counts as too stale to serve
+			if (!cached.get().isStale()) {
+				if (logger.isLoggable(Level.FINE)) logger.fine("Used "+symbol+" from Redis");
+				localCache.put(symbol, cachedQuote);
+				return CompletableFuture.completedFuture(cachedQuote);
+			}
+			if (!isTooStaleToServe(cachedQuote) && refreshInBackground(symbol, cachedQuote)) {
+				if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" in Redis was stale, so using it while it gets refreshed in the background");
+				return CompletableFuture.completedFuture(cachedQuote);
+			}
+
+			if (logger.isLoggable(Level.INFO)) logger.info(symbol+" in Redis was too stale");
+			return refreshQuoteAsync(symbol, cachedQuote, true).exceptionally(t -> {
+				logger.info("Error getting fresh quote; using cached value instead");
+				logException(t);
+				return cachedQuote;
+			});
+		}).exceptionally(t -> {
+			logRedisException(t);
+			return null;
+		}).thenCompose(result -> (result != null) ? CompletableFuture.completedFuture(result) : getBackupQuoteAsync(symbol));
+	}
+
+	/** Same as refreshQuote, but returns as soon as the call to API Connect is on its way.  Concurrent requests for the
+	  * same symbol share the call, whether they came in via getStockQuote or getStockQuoteAsync. */
+	private CompletionStage<Quote> refreshQuoteAsync(String symbol, Quote cachedQuote, boolean refresh) {
+		if (refresh_lock_timeout > 0) { //coordinating with the other pods takes a few Redis round trips, so do it the synchronous way, off the request thread
+			return supplyAsync(() -> refreshQuote(symbol, cachedQuote, refresh));
+		}
+
+		return singleFlight.executeAsync(symbol, () -> callAPIConnectAsync(symbol, cachedQuote != null).thenApplyAsync(quote -> {
+			if (quote == null) {
+				logger.warning("Got null from the stock quote provider");
+				return null;
+			}
+			if (logger.isLoggable(Level.FINE)) logger.fine("Got quote for "+symbol+" from API Connect");
+			if (refresh) quote.setTime(System.currentTimeMillis()); //so we don't report stale after the market has closed or on weekends
+			try (Jedis jedis = redis.getPrimary(quoteStore.key(symbol));) {
+				cacheQuote(jedis, symbol, quote, cachedQuote); //Put in Redis so it's there next time we ask
+				if (logger.isLoggable(Level.FINE)) logger.fine("Put "+symbol+" in Redis");
+			} catch (Throwable t) { //we still got the quote, so return it anyway
+				logRedisException(t);
+			}
+			localCache.put(symbol, quote);
+			publishQuote(symbol, quote);
+			return quote;
+		}, asyncExecutor()));
+	}
+
+	/** Same as the tail end of getStockQuote, for when Redis couldn't give us a quote: use the backup cache if Redis is
+	  * configured (to save our calls to the quote provider), otherwise call API Connect */
+	private CompletionStage<Quote> getBackupQuoteAsync(String symbol) {
+		logger.warning("Something went wrong getting the quote.  Falling back to non-Redis approach, with the backup cache");
+		Quote backupQuote = localCache.getAnyAge(symbol);
+		if ((backupQuote != null) && (redis != null)) { //Redis is having trouble, so don't use up our calls to the quote provider
+			if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" found in backup cache");
+			return CompletableFuture.completedFuture(backupQuote);
+		}
+
+		if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" not fresh in backup cache, so driving call directly to API Connect");
+		return callAPIConnectAsync(symbol, backupQuote != null).handle((quote, t) -> {
+			if (t == null) {
+				if (logger.isLoggable(Level.FINE)) logger.fine("Got quote for "+symbol+" from API Connect - adding to the backup cache");
+				localCache.put(symbol, quote);
+				return quote;
+			}
+			logException(t);
+			return (backupQuote != null) ? backupQuote : getTestQuote(symbol, ERROR);
+		});
+	}
+
+	/** Log why a call to API Connect for a symbol that wasn't in Redis didn't get a quote.  A skipped call (for a symbol
+	  * in the negative cache, or a provider that's down or out of calls) has already been counted, and happens on every
+	  * request for such a symbol, so it's only logged at FINE. */
+	private static void logUpstreamException(String symbol, Throwable t) {
+		if (t instanceof UpstreamSkippedException) {
+			if (logger.isLoggable(Level.FINE)) logger.fine(t.getMessage());
+		} else {
+			logger.info("Error getting quote for "+symbol+" from API Connect");
+			logException(t);
+		}
+	}
+
+	/** What to serve when API Connect was already asked (or skipped) for a quote and had nothing: whatever the backup
+	  * cache has, however old, or else an error quote */
+	private Quote getBackupOrErrorQuote(String symbol) {
+		Quote backupQuote = localCache.getAnyAge(symbol);
+		return (backupQuote != null) ? backupQuote : getTestQuote(symbol, ERROR);
+	}
+
+	/** Call API Connect for the quote, unless it's down or recently said it doesn't know the symbol (in which case an
+	  * UpstreamSkippedException is thrown right away), keeping track of how the call went.  haveCachedQuote is whether
+	  * the caller has a (stale or backup) quote to fall back on if the call isn't made. */
+	private Quote callAPIConnect(String symbol, boolean haveCachedQuote) {
+		UpstreamSkippedException skip = skipUpstream(apiConnectHealth, apiConnectLimiter, "API Connect", symbol, haveCachedQuote);
+		if (skip != null) throw skip;
+		QuoteBatcher batcher = apiConnectBatcher;
+		if (batcher != null) return awaitBatch(batcher.get(symbol)); //the batch keeps track of how its call went
+		long start = System.nanoTime();
+		try {
+			Quote quote = apiConnectClient.getStockQuoteViaAPIConnect(symbol);
+			recordUpstreamResult(apiConnectHealth, Tier.API_CONNECT, start, symbol, quote, null);
+			return quote;
+		} catch (RuntimeException e) {
+			recordUpstreamResult(apiConnectHealth, Tier.API_CONNECT, start, symbol, null, e);
+			throw e;
+		}
+	}
+
+	/** Same as callAPIConnect, but without blocking.  Any failure (even to start the REST call) shows up in the
+	  * CompletionStage, rather than being thrown. */
+	private CompletionStage<Quote> callAPIConnectAsync(String symbol, boolean haveCachedQuote) {
+		UpstreamSkippedException skip = skipUpstream(apiConnectHealth, apiConnectLimiter, "API Connect", symbol, haveCachedQuote);
+		if (skip != null) return CompletableFuture.failedFuture(skip);
+		QuoteBatcher batcher = apiConnectBatcher;
+		if (batcher != null) return batcher.get(symbol); //the batch keeps track of how its call went
+		long start = System.nanoTime();
+		try {
+			CompletionStage<Quote> stage = apiConnectClient.getStockQuoteViaAPIConnectAsync(symbol);
+			return stage.whenComplete((quote, t) -> recordUpstreamResult(apiConnectHealth, Tier.API_CONNECT, start, symbol, quote, t));
+		} catch (Throwable t) {
+			recordUpstreamResult(apiConnectHealth, Tier.API_CONNECT, start, symbol, null, t);
+			return CompletableFuture.failedFuture(t);
+		}
+	}
+
+	/** Same as callAPIConnect, but for IEX */
+	private Quote callIEX(String symbol, boolean haveCachedQuote) {
+		UpstreamSkippedException skip = skipUpstream(iexHealth, iexLimiter, "IEX", symbol, haveCachedQuote);
+		if (skip != null) throw skip;
+		QuoteBatcher batcher = iexBatcher;
+		if (batcher != null) return awaitBatch(batcher.get(symbol)); //the batch keeps track of how its call went
+		long start = System.nanoTime();
+		try {
+			Quote quote = iexClient.getStockQuoteViaIEX(symbol, iexApiKey);
+			recordUpstreamResult(iexHealth, Tier.IEX, start, symbol, quote, null);
+			return quote;
+		} catch (RuntimeException e) {
+			recordUpstreamResult(iexHealth, Tier.IEX, start, symbol, null, e);
+			throw e;
+		}
+	}
+
+	/** Same as callAPIConnectAsync, but for IEX */
+	private CompletionStage<Quote> callIEXAsync(String symbol, boolean haveCachedQuote) {
+		UpstreamSkippedException skip = skipUpstream(iexHealth, iexLimiter, "IEX", symbol, haveCachedQuote);
+		if (skip != null) return CompletableFuture.failedFuture(skip);
+		QuoteBatcher batcher = iexBatcher;
+		if (batcher != null) return batcher.get(symbol); //the batch keeps track of how its call went
+		long start = System.nanoTime();
+		try {
+			CompletionStage<Quote> stage = iexClient.getStockQuoteViaIEXAsync(symbol, iexApiKey);
+			return stage.whenComplete((quote, t) -> recordUpstreamResult(iexHealth, Tier.IEX, start, symbol, quote, t));
+		} catch (Throwable t) {
+			recordUpstreamResult(iexHealth, Tier.IEX, start, symbol, null, t);
+			return CompletableFuture.failedFuture(t);
+		}
+	}
+
+	/** Returns why a call to the specified quote provider for the specified symbol shouldn't be made, or null if it should.
+	  * The negative cache is checked first, so a bogus symbol can't use up the trial call to a provider that's down, and
+	  * the limits last, so a call that isn't going to be made doesn't count against them.  A call for a symbol the caller
+	  * has no quote for at all is essential, so it may dip into the reserve at the end of the monthly quota. */
+	private static UpstreamSkippedException skipUpstream(UpstreamHealth health, UpstreamLimiter limiter, String provider, String symbol, boolean haveCachedQuote) {
+		if (negativeCache.contains(symbol)) return new UpstreamSkippedException(provider+" recently said it doesn't know "+symbol);
+		if (!health.isAvailable()) return new UpstreamSkippedException(provider+" is down, so not calling it for "+symbol);
+		if ((limiter != null) && !limiter.tryAcquire(!haveCachedQuote)) {
+			health.cancelTrial();
+			return new UpstreamSkippedException(provider+" call limit reached, so not calling it for "+symbol);
+		}
+		return null;
+	}
+
+	/** Keep the provider's health, the negative cache and the upstream latency metrics up to date with how a call went.
+	  * As far as its health goes, a provider that says it doesn't know the symbol (with an empty response, or a 400 or
+	  * 404) is working fine. */
+	private static void recordUpstreamResult(UpstreamHealth health, Tier provider, long start, String symbol, Quote quote, Throwable t) {
+		quoteMetrics.upstream(provider, start);
+		while (((t instanceof CompletionException) || (t instanceof ExecutionException)) && (t.getCause() != null)) t = t.getCause();
+
+		boolean unknownSymbol = (t == null) ? (quote == null) : false;
+		if (t instanceof WebApplicationException) {
+			int status = ((WebApplicationException) t).getResponse().getStatus();
+			unknownSymbol = (status == 400) || (status == 404);
+		}
+
+		if ((t == null) || unknownSymbol) health.recordSuccess();
+		else health.recordFailure();
+		if (unknownSymbol) {
+			if (logger.isLoggable(Level.INFO)) logger.info("Not asking for "+symbol+" again for a while, since the quote provider doesn't know it");
+			negativeCache.put(symbol);
+		}
+	}
+
+	/** Run something that blocks (such as a Redis round trip) on the managed executor, rather than on the request thread */
+	private <T> CompletableFuture<T> supplyAsync(Callable<T> task) {
+		return supplyAsync(task, asyncExecutor());
+	}
+
+	private static <T> CompletableFuture<T> supplyAsync(Callable<T> task, Executor executor) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return task.call();
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}, executor);
+	}
+
+	/** The managed executor when running in Liberty, or the common pool otherwise (such as via main()) */
+	private Executor asyncExecutor() {
+		return (managedExecutor != null) ? managedExecutor : ForkJoinPool.commonPool();
+	}
+
+	@GET
+	@Path("/batch")
+	@Produces(MediaType.APPLICATION_JSON)
+//	@RolesAllowed({"StockTrader", "StockViewer"}) //Couldn't get this to work; had to do it through the web.xml instead :(
+	/**  Get stock quotes for a comma-separated list of symbols in one call.  All symbols are read from Redis in a single
+	  *  MGET, only the missing ones are fetched (concurrently) from API Connect, and those get written back to Redis in a
+	  *  single pipelined batch.  Stale ones are refreshed the same way getStockQuote does it, and if Redis can't be read,
+	  *  the backup cache is used before going upstream.  In a Redis Cluster, that's one MGET and one pipeline per node. */
+	@WithSpan
+	public List<Quote> getStockQuotes(@QueryParam("symbols") String symbols) throws IOException {
+		start();
+		ArrayList<Quote> quotes = new ArrayList<>();
+		if ((symbols == null) || symbols.isEmpty()) return quotes;
+
+		LinkedHashSet<String> symbolSet = new LinkedHashSet<>(); //preserve the requested order, but drop duplicates
+		for (String symbol : symbols.split(",")) {
+			symbol = symbol.trim();
+			if (!symbol.isEmpty()) symbolSet.add(symbol);
+		}
+
+		HashMap<String, Quote> results = new HashMap<>();
+		ArrayList<String> lookups = new ArrayList<>();
+		for (String symbol : symbolSet) {
+			if (symbol.equalsIgnoreCase(TEST_SYMBOL) || symbol.equalsIgnoreCase(SLOW_SYMBOL) || symbol.equalsIgnoreCase(FAIL_SYMBOL)) {
+				results.put(symbol, getStockQuoteWithFallback(symbol)); //test symbols keep their special single-quote behavior
+			} else {
+				Quote quote = localCache.get(symbol);
+				if (quote != null) results.put(symbol, quote); //no need to ask Redis for this one
+				else lookups.add(symbol);
+			}
+		}
+
+		Map<String, QuoteStore.Lookup> cachedQuotes = new HashMap<>();
+		boolean redisAvailable = false;
+		if ((redis != null) && !lookups.isEmpty()) try {
+			long start = System.nanoTime();
+			cachedQuotes = getCachedQuotes(lookups); //one round trip for the whole batch
+			quoteMetrics.redis(RedisOp.MGET, start);
+			redisAvailable = true;
+		} catch (Throwable t) {
+			logRedisException(t);
+		}
+
+		//kick off all of the API Connect calls we need before waiting on any of them
+		LinkedHashMap<String, CompletableFuture<Quote>> pending = new LinkedHashMap<>(); //not in Redis, so written back below
+		LinkedHashMap<String, CompletableFuture<Quote>> refreshing = new LinkedHashMap<>(); //stale, so refreshed like getStockQuote does
+		for (String symbol : lookups) {
+			if ((redis != null) && !redisAvailable) { //Redis is having trouble, so don't use up our calls to the quote provider
+				Quote backupQuote = localCache.getAnyAge(symbol);
+				if (backupQuote != null) {
+					if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" found in backup cache");
+					results.put(symbol, backupQuote);
+					continue;
+				}
+			}
+
+			QuoteStore.Lookup lookup = cachedQuotes.get(symbol);
+			Quote cachedQuote = (lookup != null) ? lookup.getQuote() : null;
+			if (lookup == null) {
+				if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" wasn't in Redis, so fetching it from API Connect");
+				try {
+					pending.put(symbol, callAPIConnectAsync(symbol, false).toCompletableFuture());
+				} catch (Throwable t) {
+					pending.put(symbol, CompletableFuture.failedFuture(t));
+				}
+			} else if (!lookup.isStale()) {
+				if (logger.isLoggable(Level.FINE)) logger.fine("Used "+symbol+" from Redis");
+				localCache.put(symbol, cachedQuote);
+				results.put(symbol, cachedQuote);
+			} else if (!isTooStaleToServe(cachedQuote) && refreshInBackground(symbol, cachedQuote)) {
+				if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" in Redis was stale, so using it while it gets refreshed in the background");
+				results.put(symbol, cachedQuote);
+			} else {
+				if (logger.isLoggable(Level.INFO)) logger.info(symbol+" in Redis was too stale");
+				refreshing.put(symbol, refreshQuoteAsync(symbol, cachedQuote, true).toCompletableFuture().exceptionally(t -> {
+					logger.info("Error getting fresh quote; using cached value instead");
+					logException(t);
+					return cachedQuote;
+				}));
+			}
+		}
+
+		LinkedHashMap<String, Quote> refreshed = new LinkedHashMap<>();
+		for (Map.Entry<String, CompletableFuture<Quote>> entry : pending.entrySet()) {
+			String symbol = entry.getKey();
+			Quote quote = null;
+			try {
+				quote = entry.getValue().join();
+			} catch (Throwable t) {
+				logException(t);
+			}
+
+			if (quote != null) {
+				if (logger.isLoggable(Level.FINE)) logger.fine("Got quote for "+symbol+" from API Connect");
+				localCache.put(symbol, quote);
+				publishQuote(symbol, quote);
+				refreshed.put(symbol, quote);
+			} else {
+				quote = getStockQuoteViaIEX(symbol); //checks the backup cache first, then IEX
+			}
+			results.put(symbol, quote);
+		}
+
+		for (Map.Entry<String, CompletableFuture<Quote>> entry : refreshing.entrySet()) {
+			Quote quote = entry.getValue().join(); //already put in Redis and the local cache, or the stale quote if that failed
+			results.put(entry.getKey(), (quote != null) ? quote : getStockQuoteViaIEX(entry.getKey()));
+		}
+
+		if (redisAvailable && !refreshed.isEmpty()) try {
+			for (List<String> shardSymbols : groupByShard(refreshed.keySet()).values()) {
+				try (Jedis jedis = redis.getPrimary(quoteStore.key(shardSymbols.get(0)));) {
+					Pipeline pipeline = jedis.pipelined();
+					for (String symbol : shardSymbols) {
+						Quote quote = refreshed.get(symbol);
+						quoteStore.set(pipeline, symbol, quote); //Put in Redis so it's there next time we ask
+						if (quoteUpdates != null) pipeline.publish(QuoteUpdates.CHANNEL, quoteUpdates.updateMessage(symbol, quote));
+					}
+					pipeline.sync(); //one round trip for all of the writes to this node
+				}
+			}
+			if (logger.isLoggable(Level.FINE)) logger.fine("Put "+refreshed.size()+" quotes in Redis");
+		} catch (Throwable t) {
+			logRedisException(t);
+		}
+
+		for (String symbol : symbolSet) {
+			quotes.add(results.get(symbol));
+		}
+		return quotes;
+	}
+
+	@GET
+	@Path("/stream")
+	@Produces(MediaType.SERVER_SENT_EVENTS)
+//	@RolesAllowed({"StockTrader", "StockViewer"}) //Couldn't get this to work; had to do it through the web.xml instead :(
+	/**  Stream quotes for a comma-separated list of symbols as Server-Sent Events: a "quote" event with the current quote
+	  *  for each symbol, then another each time its price changes.  This saves a client polling GET /{symbol} for every
+	  *  symbol on its screen: the subscribed symbols are looked up once per quote.feed.interval seconds for all clients
+	  *  together (the same way /batch does), and refreshes made for other requests (or, with NEAR_CACHE, by other pods)
+	  *  are passed on as they happen.  A client that can't keep up only gets the latest quote for each symbol. */
+	@WithSpan
+	public void streamQuotes(@QueryParam("symbols") String symbols, @Context SseEventSink eventSink, @Context Sse sse) {
+		start();
+		QuoteFeed feed = quoteFeed;
+		if ((feed == null) || (symbols == null) || symbols.isEmpty()) {
+			if (feed == null) logger.warning("Quote streaming isn't available outside of Liberty");
+			eventSink.close();
+			return;
+		}
+
+		int maxSymbols = getConfig("quote.feed.maxSymbols", Integer.class, 100);
+		LinkedHashSet<String> symbolSet = new LinkedHashSet<>();
+		for (String symbol : symbols.split(",")) {
+			symbol = symbol.trim();
+			if (symbol.isEmpty() || symbol.equalsIgnoreCase(SLOW_SYMBOL) || symbol.equalsIgnoreCase(FAIL_SYMBOL)) continue; //these would hold up everyone's updates
+			if (symbolSet.size() >= maxSymbols) {
+				if (logger.isLoggable(Level.INFO)) logger.info("Only streaming the first "+maxSymbols+" symbols requested");
+				break;
+			}
+			symbolSet.add(symbol);
+		}
+		if (symbolSet.isEmpty()) { //nothing we'd ever send an event for
+			eventSink.close();
+			return;
+		}
+
+		feed.subscribe(symbolSet, new QuoteFeed.Sink() {
+			@Override
+			public CompletionStage<?> send(Quote quote) {
+				return eventSink.send(sse.newEventBuilder().name("quote").data(quote.toString()).build()); //the same JSON as GET /{symbol} returns
+			}
+
+			@Override
+			public boolean isClosed() {
+				return eventSink.isClosed();
+			}
+
+			@Override
+			public void close() {
+				eventSink.close();
+			}
+		});
+
+		ArrayList<String> unknown = new ArrayList<>(); //no quote published yet, so look them up now rather than at the next poll
+		for (String symbol : symbolSet) if (!feed.hasQuote(symbol)) unknown.add(symbol);
+		if (!unknown.isEmpty()) try {
+			managedExecutor.execute(() -> pollQuoteFeed(unknown));
+		} catch (Throwable t) {
+			logException(t); //they'll show up at the next poll
+		}
+	}
+
+	/** Look up the specified symbols the same way a /batch request would (so a stale quote gets refreshed), and publish
+	  * them to the streaming clients.  Only the ones whose price has changed actually get sent on. */
+	private void pollQuoteFeed(List<String> symbols) {
+		try {
+			List<Quote> quotes = getStockQuotes(String.join(",", symbols));
+			for (int index = 0; index < quotes.size(); index++) {
+				Quote quote = quotes.get(index);
+				if ((quote != null) && (quote.getPrice() != ERROR)) publishQuote(symbols.get(index), quote);
+			}
+		} catch (Throwable t) {
+			logException(t);
+		}
+	}
+
+	/** Start the feed behind GET /stream, and look up its subscribed symbols every quote.feed.interval seconds */
+	private void startQuoteFeed() {
+		if ((managedExecutor == null) || (managedScheduler == null)) return;
+		if (!quoteFeedStarted.compareAndSet(false, true)) return; //only one instance should do this
+
+		QuoteFeed feed = new QuoteFeed(managedExecutor);
+		quoteFeed = feed;
+		if (quoteUpdates != null) quoteUpdates.setFeed(feed);
+
+		long period = getConfig("quote.feed.interval", Long.class, 5L);
+		managedScheduler.scheduleAtFixedRate(() -> {
+			feed.prune();
+			Set<String> symbols = feed.getSymbols();
+			if (!symbols.isEmpty()) pollQuoteFeed(new ArrayList<>(symbols));
+		}, period, period, TimeUnit.SECONDS);
+		logger.info("Streaming quote changes, looking up the subscribed symbols every "+period+" seconds");
+	}
+
+	/** If quote.batch.window is set, gather the symbols concurrent requests need from IEX (and, with quote.batch.apiConnect,
+	  * from API Connect) for that many milliseconds, and get them in one upstream call */
+	private void startQuoteBatching() {
+		long window = getConfig("quote.batch.window", Long.class, 0L);
+		if ((window <= 0) || (managedScheduler == null)) return;
+		if (!quoteBatchingStarted.compareAndSet(false, true)) return; //only one instance should do this
+
+		int maxSymbols = getConfig("quote.batch.maxSymbols", Integer.class, 100);
+		if (getConfig("quote.batch.apiConnect", Boolean.class, false)) {
+			apiConnectBatcher = new QuoteBatcher(symbols -> callBatch(apiConnectHealth, Tier.API_CONNECT, symbols,
+				() -> apiConnectClient.getStockQuotesViaAPIConnectAsync(String.join(",", symbols), "quote")), managedScheduler, window, maxSymbols);
+		}
+		iexBatcher = new QuoteBatcher(symbols -> callBatch(iexHealth, Tier.IEX, symbols,
+			() -> iexClient.getStockQuotesViaIEXAsync(String.join(",", symbols), "quote", iexApiKey)), managedScheduler, window, maxSymbols);
+		logger.info("Batching upstream quote calls every "+window+" milliseconds, up to "+maxSymbols+" symbols at a time");
+	}
+
+	/** Make a batched upstream call, and keep the provider's health, the negative cache and the upstream latency metrics
+	  * up to date with how it went - once for the whole batch, not once per symbol in it.  Only symbols missing from a
+	  * successful response are ones the provider doesn't know; a 400 or 404 for the whole request (such as from a
+	  * provider without a batch endpoint) says nothing about any one symbol, so it just counts as a failed call. */
+	private static CompletionStage<Map<String, Quote>> callBatch(UpstreamHealth health, Tier provider, List<String> symbols, Supplier<CompletionStage<Map<String, Map<String, Quote>>>> call) {
+		long start = System.nanoTime();
+		CompletionStage<Map<String, Map<String, Quote>>> stage;
+		try {
+			stage = call.get();
+		} catch (Throwable t) { //the call failed before it even got going
+			stage = CompletableFuture.failedFuture(t);
+		}
+		return stage.thenApply(response -> byRequestedSymbol(symbols, response)).whenComplete((quotes, t) -> {
+			quoteMetrics.upstream(provider, start);
+			if (t != null) {
+				health.recordFailure();
+				return;
+			}
+			health.recordSuccess();
+			for (String symbol : symbols) if (!quotes.containsKey(symbol)) {
+				if (logger.isLoggable(Level.INFO)) logger.info("Not asking for "+symbol+" again for a while, since the quote provider doesn't know it");
+				negativeCache.put(symbol);
+			}
+		});
+	}
+
+	/** Pick the quotes out of a batch response, keyed by the symbols as they were asked for (the response has them in
+	  * upper case).  Symbols the provider didn't know are left out. */
+	private static Map<String, Quote> byRequestedSymbol(List<String> symbols, Map<String, Map<String, Quote>> response) {
+		HashMap<String, Quote> quotes = new HashMap<>();
+		if (response == null) return quotes;
+		for (String symbol : symbols) {
+			Map<String, Quote> types = response.get(symbol);
+			if (types == null) types = response.get(symbol.toUpperCase());
+			if ((types != null) && (types.get("quote") != null)) quotes.put(symbol, types.get("quote"));
+		}
+		return quotes;
+	}
+
+	/** Wait for a quote from a batched upstream call, throwing whatever the call failed with */
+	private static Quote awaitBatch(CompletionStage<Quote> stage) {
+		try {
+			return stage.toCompletableFuture().join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+
+	/** Pass a fresh quote on to any streaming clients subscribed to it */
+	private static void publishQuote(String symbol, Quote quote) {
+		QuoteFeed feed = quoteFeed;
+		if (feed != null) feed.publish(symbol, quote);
+	}
+
+	/** Get a single quote the same way a GET /{symbol} request would, including its @Fallback to IEX */
+	private Quote getStockQuoteWithFallback(String symbol) throws IOException {
+		try {
+			return getStockQuote(symbol);
+		} catch (Throwable t) {
+			logException(t);
+			return getStockQuoteViaIEX(symbol);
+		}
+	}
+
 	/** When API Connect is unavailable, fall back to calling IEX directly to get the stock quote */
 	@WithSpan
 	public Quote getStockQuoteViaIEX(String symbol) throws IOException {
+		start();
 		logger.info("Using fallback method getStockQuoteViaIEX");
-		Quote quote = backupCache.get(symbol);
+		long start = System.nanoTime();
+		Quote quote = localCache.getAnyAge(symbol);
 		if (quote != null) {
-			logger.fine(symbol+" found in backup cache");
-		} else try { //don't bother with cache staleness if API Connect isn't configured (bounce pod to get fresh)
-			logger.fine(symbol+" not found in backup cache, so driving call directly to IEX");
-			quote = iexClient.getStockQuoteViaIEX(symbol, iexApiKey);
-			logger.fine("Got quote for "+symbol+" from IEX - adding to the backup cache");
-			backupCache.put(symbol, quote);
+			if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" found in backup cache");
+			return resolved(quote, Tier.BACKUP, start);
+		} else try { //don't bother with cache staleness if API Connect isn't configured
+			if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" not found in backup cache, so driving call directly to IEX");
+			quote = callIEX(symbol, false);
+			if (logger.isLoggable(Level.FINE)) logger.fine("Got quote for "+symbol+" from IEX - adding to the backup cache");
+			localCache.put(symbol, quote);
 		} catch (Throwable t) {
 			logException(t);
-			return getTestQuote(symbol, ERROR);
+			return resolved(getTestQuote(symbol, ERROR), Tier.ERROR, start);
 		}
-		return quote;
+		return resolved(quote, Tier.IEX, start);
 	}
 
+	/** When API Connect is unavailable, fall back to calling IEX directly (without blocking) to get the stock quote */
 	@WithSpan
-	private boolean isStale(Quote quote) {
-		if (quote==null) return true;
+	public CompletionStage<Quote> getStockQuoteViaIEXAsync(String symbol) {
+		start();
+		logger.info("Using fallback method getStockQuoteViaIEXAsync");
+		Quote quote = localCache.getAnyAge(symbol);
+		if (quote != null) {
+			if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" found in backup cache");
+			return CompletableFuture.completedFuture(quote);
+		}
+
+		if (logger.isLoggable(Level.FINE)) logger.fine(symbol+" not found in backup cache, so driving call directly to IEX");
+		return callIEXAsync(symbol, false).handle((iexQuote, t) -> {
+			if (t != null) {
+				logException(t);
+				return getTestQuote(symbol, ERROR);
+			}
+			if (logger.isLoggable(Level.FINE)) logger.fine("Got quote for "+symbol+" from IEX - adding to the backup cache");
+			localCache.put(symbol, iexQuote);
+			return iexQuote;
+		});
+	}
 
-		long now = System.currentTimeMillis();
-		long then = quote.getTime();
+	/** If REFRESH_AHEAD_COUNT is set, periodically refresh the most popular symbols shortly before they go stale,
+	  * so that nobody has to wait on the upstream call for them */
+	private void startRefreshAhead() {
+		if ((refresh_ahead_count <= 0) || (managedScheduler == null) || (redis == null)) return;
+		if (!refreshAheadStarted.compareAndSet(false, true)) return; //only one instance should do this
 
-		if (then==0) return true; //no time value present in quote
-		long difference = now - then;
+		long period = Math.max(refresh_ahead_lead/2, 1); //check often enough not to miss the window before expiry
+		managedScheduler.scheduleAtFixedRate(this::refreshAhead, period, period, TimeUnit.SECONDS);
+		logger.info("Refreshing the "+refresh_ahead_count+" most popular symbols "+refresh_ahead_lead+" seconds before they go stale, checking every "+period+" seconds");
+	}
 
-		String symbol = quote.getSymbol();
-		logger.fine("Quote for "+symbol+" is "+difference/((double)MINUTE_IN_MILLISECONDS)+" minutes old");
+	/** If redis.pool.minIdle.auto is enabled, periodically adjust how many idle Redis connections we keep ready, based
+	  * on how long requests have been waiting for one */
+	private void startPoolAutoSize() {
+		if ((poolMonitor == null) || (managedScheduler == null) || !getConfig("redis.pool.minIdle.auto", Boolean.class, false)) return;
+		if (!poolAutoSizeStarted.compareAndSet(false, true)) return; //only one instance should do this
 
-		return (difference > cache_interval*MINUTE_IN_MILLISECONDS); //cached quote is too old
+		long period = getConfig("redis.pool.minIdle.autoInterval", Long.class, 30L);
+		managedScheduler.scheduleAtFixedRate(() -> {
+			try {
+				poolMonitor.resize();
+			} catch (Throwable t) {
+				logException(t);
+			}
+		}, period, period, TimeUnit.SECONDS);
+		logger.info("Auto-sizing the Redis pool's minIdle every "+period+" seconds");
 	}
 
-	@WithSpan
-	private Quote getTestQuote(String symbol, double price) { //in case API Connect or IEX is down or we're rate limited
-		Date now = new Date();
-		String today = formatter.format(now);
+	private void refreshAhead() {
+		long threshold = cache_interval*MINUTE_IN_MILLISECONDS - refresh_ahead_lead*1000;
+		for (String symbol : hotSymbols.getHottest(refresh_ahead_count)) {
+			try {
+				Quote quote = null;
+				try {
+					QuoteStore.Lookup lookup = getCachedQuote(symbol);
+					if (lookup != null) quote = lookup.getQuote();
+				} catch (QuoteFormatException e) {
+					logException(e);
+				}
 
-		logger.info("Building a hard-coded quote (bypassing Redis and API Connect");
+				if ((quote != null) && (quote.getTime() != 0) && (System.currentTimeMillis() - quote.getTime() < threshold)) continue; //not close to stale yet
 
-		Quote quote = new Quote(symbol, price, today);
+				if (!refreshAheadBudget.tryAcquire()) {
+					logger.fine("Refresh-ahead budget for this minute used up");
+					break;
+				}
+				refreshQuote(symbol, quote, true);
+				hotSymbols.recordRefresh(symbol);
+				if (logger.isLoggable(Level.FINE)) logger.fine("Refreshed "+symbol+" ahead of it going stale");
+			} catch (Throwable t) {
+				logRedisException(t);
+			}
+		}
+		hotSymbols.decay();
+	}
 
-		logger.info("Returning hard-coded quote: "+quote!=null ? quote.toString() : "null");
+	/** When stale-while-revalidate is enabled (HARD_STALE_INTERVAL greater than CACHE_INTERVAL), a stale quote can still be
+	  * returned as-is while it gets refreshed in the background, until it gets older than the hard limit */
+	private boolean isTooStaleToServe(Quote quote) {
+		if (hard_stale_interval <= cache_interval) return true; //stale-while-revalidate is disabled
+		if ((quote==null) || (quote.getTime()==0)) return true;
 
-		return quote;
+		long difference = System.currentTimeMillis() - quote.getTime();
+		return (difference > hard_stale_interval*MINUTE_IN_MILLISECONDS);
 	}
 
-	@WithSpan
-	private Quote getSlowQuote() { //to help test Istio timeout policies; deliberately not put in Redis cache
-		logger.info("Sleeping for one minute for symbol SLOW!");
+	/** Queue a refresh of the specified symbol on the managed executor, so the caller can return the stale quote right away.
+	  * Returns false if there's no executor available, in which case the caller should refresh synchronously instead */
+	private boolean refreshInBackground(String symbol, Quote staleQuote) {
+		if ((managedExecutor == null) || (redis == null)) return false;
+
+		if (pendingRefreshes.size() >= refresh_queue_size) { //keep the backlog bounded; a later request will try again
+			droppedRefreshes.increment();
+			return true;
+		}
+		if (!pendingRefreshes.add(symbol)) return true; //already queued
 
 		try {
-			Thread.sleep(SLOW_TIME); //to help test Istio timeout policies
-		} catch (Throwable t) {
+			managedExecutor.execute(() -> {
+				try {
+					refreshQuote(symbol, staleQuote, true);
+					if (logger.isLoggable(Level.FINE)) logger.fine("Refreshed "+symbol+" in the background");
+				} catch (Throwable t) {
+					logException(t);
+				} finally {
+					pendingRefreshes.remove(symbol);
+				}
+			});
+		} catch (Throwable t) { //such as a RejectedExecutionException
+			pendingRefreshes.remove(symbol);
 			logException(t);
+			return false;
 		}
+		return true;
+	}
 
-		logger.info("Done sleeping.");
+	private Quote getTestQuote(String symbol, double price) { //in case API Connect or IEX is down or we're rate limited
+		Span span = startDetailSpan("StockQuote.getTestQuote");
+		try {
+			int today = (int) LocalDate.now().toEpochDay(); //java.time is thread-safe, unlike the SimpleDateFormat we used to share
+
+			logger.info("Building a hard-coded quote (bypassing Redis and API Connect");
+
+			Quote quote = new Quote(symbol, price, today, 0);
 
-		return getTestQuote(SLOW_SYMBOL, TEST_PRICE);
+			if (logger.isLoggable(Level.INFO)) logger.info("Returning hard-coded quote: "+quote);
+
+			return quote;
+		} finally {
+			endDetailSpan(span);
+		}
 	}
 
-	@WithSpan
+	private Quote getSlowQuote() { //to help test Istio timeout policies; deliberately not put in Redis cache
+		Span span = startDetailSpan("StockQuote.getSlowQuote");
+		try {
+			if (logger.isLoggable(Level.INFO)) logger.info("Sleeping for "+slow_time+" milliseconds for symbol SLOW!");
+
+			try {
+				Thread.sleep(slow_time); //to help test Istio timeout policies
+			} catch (Throwable t) {
+				logException(t);
+			}
+
+			logger.info("Done sleeping.");
+
+			return getTestQuote(SLOW_SYMBOL, TEST_PRICE);
+		} finally {
+			endDetailSpan(span);
+		}
+	}
+
+	/** Start a span for an inner step of a quote lookup, as a child of the current (REST resource) span, but only if
+	  * quote.tracing=detailed; otherwise this returns null, and costs nothing more than the check */
+	private static Span startDetailSpan(String name) {
+		Tracer tracer = detailTracer;
+		return (tracer != null) ? tracer.spanBuilder(name).startSpan() : null;
+	}
+
+	private static void endDetailSpan(Span span) {
+		if (span != null) span.end();
+	}
+
+	/** The Redis pool settings, from MicroProfile Config: redis.pool.maxTotal, redis.pool.maxIdle, redis.pool.minIdle,
+	  * redis.pool.maxWait (milliseconds), redis.pool.testOnBorrow, redis.pool.testWhileIdle and redis.pool.fairness.
+	  * These can also be set via environment variables, such as REDIS_POOL_MAXTOTAL. */
 	public static JedisPoolConfig getPoolConfig() {
 		if (jedisPoolConfig == null) {
 			JedisPoolConfig poolConfig = new JedisPoolConfig();
 
 			// Each thread trying to access Redis needs its own Jedis instance from the pool.
 			// Using too small a value here can lead to performance problems, too big and you have wasted resources.
-			int maxConnections = 200;
+			int maxConnections = getConfig("redis.pool.maxTotal", Integer.class, 200);
 			poolConfig.setMaxTotal(maxConnections);
-			poolConfig.setMaxIdle(maxConnections);
+			poolConfig.setMaxIdle(getConfig("redis.pool.maxIdle", Integer.class, maxConnections));
 
 			// This controls the number of connections that should be maintained for bursts of load.
 			// Increase this value when you see pool.getResource() taking a long time to complete under burst scenarios
-			poolConfig.setMinIdle(50);
+			// (see the redis.pool.borrowWait histogram), or enable redis.pool.minIdle.auto to have it adjusted for you
+			poolConfig.setMinIdle(getConfig("redis.pool.minIdle", Integer.class, 50));
 
 			// Using "false" here will make it easier to debug when your maxTotal/minIdle/etc settings need adjusting.
 			// Setting it to "true" will result better behavior when unexpected load hits in production
 			poolConfig.setBlockWhenExhausted(true);
 
-			// How long to wait before throwing when pool is exhausted
-			poolConfig.setMaxWait(Duration.ofSeconds(30));
+			// How long to wait before throwing when pool is exhausted.  Keep this well under the Istio timeout, so
+			// that we still have time to answer from the backup cache
+			poolConfig.setMaxWait(Duration.ofMillis(getConfig("redis.pool.maxWait", Long.class, 2000L)));
 
-			// Test the connection before it's about to be reused
-			poolConfig.setTestOnBorrow(true);
+			// Testing the connection before it's about to be reused costs a PING round trip on every lookup, so by
+			// default we rely on the idle testing below, and a request that gets a dead connection uses the backup cache
+			poolConfig.setTestOnBorrow(getConfig("redis.pool.testOnBorrow", Boolean.class, false));
 
 			// Test the pool when we're idle
-			poolConfig.setTestWhileIdle(true);
+			poolConfig.setTestWhileIdle(getConfig("redis.pool.testWhileIdle", Boolean.class, true));
 
 			// Set eviction timeout for idle connections
 			poolConfig.setMinEvictableIdleDuration(Duration.ofSeconds(60));
@@ -445,32 +1805,66 @@ public class StockQuote extends Application {
 			// Check all the connections at once
 			poolConfig.setNumTestsPerEvictionRun(3); // test all connections
 
+			// With a virtual thread per request, thousands of them can be waiting on a connection at once (a virtual
+			// thread waiting on the pool parks rather than pinning its carrier), so by default hand connections out
+			// in arrival order, to keep the tail latency fair
+			poolConfig.setFairness(getConfig("redis.pool.fairness", Boolean.class, virtualThreadExecutor != null));
+
 			StockQuote.jedisPoolConfig = poolConfig;
 		}
 
 		return jedisPoolConfig;
 	}
 
-	@WithSpan
-	public static String getPoolCurrentUsage() {
-		JedisPool jedisPool = StockQuote.jedisPool;
-		JedisPoolConfig poolConfig = getPoolConfig();
-
-		int active = jedisPool.getNumActive();
-		int idle = jedisPool.getNumIdle();
-		int total = active + idle;
-		String log = String.format(
-				"JedisPool: Active=%d, Idle=%d, Waiters=%d, total=%d, maxTotal=%d, minIdle=%d, maxIdle=%d",
-				active,
-				idle,
-				jedisPool.getNumWaiters(),
-				total,
-				poolConfig.getMaxTotal(),
-				poolConfig.getMinIdle(),
-				poolConfig.getMaxIdle()
-		);
-
-		return log;
+	/** Connect to Redis as set by redis.topology: standalone (the default; REDIS_URL is the primary, and redis.replicas
+	  * optionally lists read replicas), sentinel (REDIS_URL is a Sentinel, redis.sentinel.nodes optionally lists more, and
+	  * redis.sentinel.master names the primary) or cluster (REDIS_URL is any node of a Redis Cluster, and
+	  * redis.cluster.nodes optionally lists more).  The credentials in REDIS_URL are used for every Redis node. */
+	private static RedisTopology getTopology(URI redisURI, JedisPoolConfig poolConfig) {
+		RedisTopology.Type type = RedisTopology.Type.STANDALONE;
+		String topology = getConfig("redis.topology", String.class, type.name());
+		try {
+			type = RedisTopology.Type.valueOf(topology.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			logger.warning("Invalid Redis topology "+topology+" - defaulting to standalone");
+		}
+
+		switch (type) {
+			case SENTINEL:
+				return RedisTopology.sentinel(redisURI, getURIs("redis.sentinel.nodes"), getConfig("redis.sentinel.master", String.class, "mymaster"),
+					getConfig("redis.sentinel.password", String.class, null), poolConfig);
+			case CLUSTER:
+				return RedisTopology.cluster(redisURI, getURIs("redis.cluster.nodes"), poolConfig);
+			default:
+				return RedisTopology.standalone(redisURI, poolConfig, getURIs("redis.replicas"));
+		}
+	}
+
+	/** A comma-separated list of redis:// URLs from MicroProfile Config, or an empty list if it isn't set */
+	private static List<URI> getURIs(String name) {
+		ArrayList<URI> uris = new ArrayList<>();
+		for (String uri : getConfig(name, String.class, "").split(",")) {
+			if (!uri.isBlank()) uris.add(URI.create(uri.trim()));
+		}
+		return uris;
+	}
+
+	/** A setting from MicroProfile Config (which includes environment variables), or the default if it isn't set */
+	private static <T> T getConfig(String name, Class<T> type, T defaultValue) {
+		try {
+			return ConfigProvider.getConfig().getOptionalValue(name, type).orElse(defaultValue);
+		} catch (IllegalArgumentException e) {
+			logger.warning("Invalid value for "+name+" - defaulting to "+defaultValue);
+		} catch (Throwable t) {
+			if (logger.isLoggable(Level.FINE)) logger.fine("MicroProfile Config not available ("+t.getMessage()+") - defaulting "+name+" to "+defaultValue);
+		}
+		return defaultValue;
+	}
+
+	/** Log a failed Redis command, first letting the topology know, in case a node has gone away or a slot has moved */
+	private static void logRedisException(Throwable t) {
+		if (redis != null) redis.recover(t);
+		logException(t);
 	}
 
 	private static void logException(Throwable t) {
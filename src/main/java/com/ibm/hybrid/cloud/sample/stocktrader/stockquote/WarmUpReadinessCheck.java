@@ -0,0 +1,39 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote;
+
+//CDI 1.2
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+//mpHealth
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+@Readiness
+@ApplicationScoped
+/** Reports the pod as ready (via /health/ready) only once its local cache has been warmed up, or the warm-up has
+  * timed out.  Asking StockQuote is also what starts the warm-up, if nothing else has needed StockQuote yet. */
+public class WarmUpReadinessCheck implements HealthCheck {
+	private @Inject StockQuote stockQuote;
+
+	@Override
+	public HealthCheckResponse call() {
+		return HealthCheckResponse.named("quote-cache-warmup").status(stockQuote.isWarmedUp()).build();
+	}
+}
@@ -0,0 +1,139 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+//Logging (JSR 47)
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
+
+/** Fills a new pod's local cache before it takes traffic, so a scale-out or a rolling restart doesn't send every first
+  * request to Redis or the quote providers.  Quotes come first from the snapshot file this (or a previous) pod last
+  * saved, then from Redis, where anything newer replaces what the snapshot had.  Quotes too old to be fresh are still
+  * kept, as backups.  The pod counts as ready once that's done, or once the timeout has passed, whichever is first. */
+public class CacheWarmer {
+	private static Logger logger = Logger.getLogger(CacheWarmer.class.getName());
+
+	private static final int SCAN_COUNT = 500;
+
+	private final QuoteCache cache;
+	private final QuoteSnapshot snapshot; //null if snapshots are disabled
+	private final int maxQuotes;
+	private final long deadline;
+	private volatile boolean done = false;
+	private volatile int snapshotCount = 0;
+	private volatile int redisCount = 0;
+
+	/** @param maxQuotes max number of quotes to load from Redis
+	  * @param timeout milliseconds from now after which we report ready, whether or not warming up has finished */
+	public CacheWarmer(QuoteCache cache, QuoteSnapshot snapshot, int maxQuotes, long timeout) {
+		this.cache = cache;
+		this.snapshot = snapshot;
+		this.maxQuotes = maxQuotes;
+		this.deadline = System.currentTimeMillis() + timeout;
+	}
+
+	/** Load the snapshot, then whatever's in Redis (if it's configured) */
+	public void warm(RedisTopology redis, QuoteStore quoteStore) {
+		long start = System.currentTimeMillis();
+		try {
+			if (snapshot != null) try {
+				for (Map.Entry<String, Quote> entry : snapshot.read().entrySet()) {
+					cache.put(entry.getKey(), entry.getValue());
+					snapshotCount++;
+				}
+			} catch (Throwable t) {
+				logger.warning("Unable to read quote snapshot "+snapshot.getPath()+": "+t.getClass().getName()+": "+t.getMessage());
+			}
+
+			if (redis != null) try {
+				loadFromRedis(redis, quoteStore);
+			} catch (Throwable t) {
+				logger.warning("Unable to warm up the local cache from Redis: "+t.getClass().getName()+": "+t.getMessage());
+			}
+		} finally {
+			done = true;
+			logger.info("Warmed up the local cache with "+snapshotCount+" quotes from the snapshot and "+redisCount+" from Redis in "+(System.currentTimeMillis()-start)+" ms");
+		}
+	}
+
+	/** Walk our keys in each Redis shard, a page at a time, until we've loaded maxQuotes of them */
+	private void loadFromRedis(RedisTopology redis, QuoteStore quoteStore) {
+		ScanParams scanParams = quoteStore.scanParams(SCAN_COUNT);
+		for (Supplier<Jedis> shard : redis.getShardReaders()) {
+			String cursor = ScanParams.SCAN_POINTER_START;
+			do {
+				if (redisCount >= maxQuotes) return;
+				try (Jedis jedis = shard.get()) {
+					ScanResult<String> page = jedis.scan(cursor, scanParams, quoteStore.scanType());
+					cursor = page.getCursor();
+					List<String> keys = page.getResult();
+					List<Quote> quotes = quoteStore.getAll(jedis, keys); //one round trip for the whole page
+					for (int index = 0; index < keys.size(); index++) {
+						Quote quote = quotes.get(index);
+						if (quote == null) continue; //expired between the SCAN and the read, or unreadable
+						String symbol = quoteStore.symbol(keys.get(index));
+						Quote existing = cache.getAnyAge(symbol);
+						if ((existing != null) && (existing.getTime() >= quote.getTime())) continue; //the snapshot's is as new
+						cache.put(symbol, quote);
+						redisCount++;
+					}
+				}
+			} while (!cursor.equals(ScanParams.SCAN_POINTER_START));
+		}
+	}
+
+	/** Save what's in the local cache now, for the next pod to warm up from.  Nothing is saved until warming up has
+	  * finished, or while the cache is empty, so a pod that never got going doesn't wipe out a good snapshot. */
+	public void saveSnapshot() {
+		if ((snapshot == null) || !done) return;
+		try {
+			Map<String, Quote> quotes = cache.getAll();
+			if (quotes.isEmpty()) return;
+			snapshot.write(quotes);
+			if (logger.isLoggable(Level.FINE)) logger.fine("Saved "+quotes.size()+" quotes to "+snapshot.getPath());
+		} catch (Throwable t) {
+			logger.warning("Unable to save quote snapshot "+snapshot.getPath()+": "+t.getClass().getName()+": "+t.getMessage());
+		}
+	}
+
+	/** Whether warming up has finished, or has taken too long to keep waiting for */
+	public boolean isReady() {
+		return done || (System.currentTimeMillis() > deadline);
+	}
+
+	public boolean isDone() {
+		return done;
+	}
+
+	public int getSnapshotCount() {
+		return snapshotCount;
+	}
+
+	public int getRedisCount() {
+		return redisCount;
+	}
+}
@@ -0,0 +1,63 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** A simple per-minute allowance of upstream calls, so optional work (like refreshing quotes before anyone has
+  * asked for them) can't eat into our monthly quota with the quote provider */
+public class CallBudget {
+	private static final long MINUTE_IN_MILLISECONDS = 60000;
+
+	private final int callsPerMinute;
+	private final LongAdder consumed = new LongAdder();
+	private long windowStart = 0;
+	private int used = 0;
+
+	public CallBudget(int callsPerMinute) {
+		this.callsPerMinute = callsPerMinute;
+	}
+
+	/** Returns true (and counts the call) if there's room in this minute's budget for another call */
+	public synchronized boolean tryAcquire() {
+		long now = System.currentTimeMillis();
+		if (now - windowStart >= MINUTE_IN_MILLISECONDS) {
+			windowStart = now;
+			used = 0;
+		}
+		if (used >= callsPerMinute) return false;
+
+		used++;
+		consumed.increment();
+		return true;
+	}
+
+	public int getCallsPerMinute() {
+		return callsPerMinute;
+	}
+
+	/** Number of calls left in the current minute */
+	public synchronized int getRemaining() {
+		if (System.currentTimeMillis() - windowStart >= MINUTE_IN_MILLISECONDS) return callsPerMinute;
+		return callsPerMinute - used;
+	}
+
+	/** Total number of calls made against this budget */
+	public long getConsumed() {
+		return consumed.sum();
+	}
+}
@@ -0,0 +1,153 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+//Logging (JSR 47)
+import java.util.logging.Logger;
+
+//Jedis (Java for Redis)
+import redis.clients.jedis.ConnectionPoolConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.exceptions.JedisConnectionException;
+import redis.clients.jedis.exceptions.JedisRedirectionException;
+import redis.clients.jedis.providers.ClusterConnectionProvider;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+/** A Redis Cluster, where each key lives on the primary that owns its hash slot.  The slot map comes from CLUSTER SLOTS
+  * via the same ClusterConnectionProvider that JedisCluster uses, and is reloaded if a command gets redirected (because
+  * a slot has moved) or a node can't be reached.  Rather than going through JedisCluster, we hand out plain Jedis
+  * connections to the right node, so the rest of the code (pipelines, Lua, SCAN) works the same in every topology.
+  * Replica connections are put in READONLY mode, so they'll serve reads for their primary's slots. */
+class ClusterTopology extends RedisTopology {
+	private static Logger logger = Logger.getLogger(ClusterTopology.class.getName());
+
+	private static final int SLOTS = 16384;
+	private static final long RENEW_INTERVAL = 1000; //milliseconds; don't reload the slot map more often than this
+
+	private final ClusterConnectionProvider provider;
+	private final JedisClientConfig clientConfig;
+	private final boolean replicaReads;
+	private final AtomicLong lastRenewal = new AtomicLong();
+	private final AtomicInteger nextNode = new AtomicInteger();
+
+	ClusterTopology(URI redisURI, List<URI> otherNodes, JedisPoolConfig poolConfig) {
+		clientConfig = clientConfig(redisURI).database(0).readOnlyForRedisClusterReplicas().build(); //a cluster only has database 0
+
+		ConnectionPoolConfig nodePoolConfig = new ConnectionPoolConfig(); //same settings, but for Connections rather than Jedis instances
+		nodePoolConfig.setMaxTotal(poolConfig.getMaxTotal());
+		nodePoolConfig.setMaxIdle(poolConfig.getMaxIdle());
+		nodePoolConfig.setMinIdle(poolConfig.getMinIdle());
+		nodePoolConfig.setBlockWhenExhausted(poolConfig.getBlockWhenExhausted());
+		nodePoolConfig.setMaxWait(poolConfig.getMaxWaitDuration());
+		nodePoolConfig.setTestOnBorrow(poolConfig.getTestOnBorrow());
+		nodePoolConfig.setTestWhileIdle(poolConfig.getTestWhileIdle());
+		nodePoolConfig.setMinEvictableIdleDuration(poolConfig.getMinEvictableIdleDuration());
+		nodePoolConfig.setTimeBetweenEvictionRuns(poolConfig.getDurationBetweenEvictionRuns());
+		nodePoolConfig.setNumTestsPerEvictionRun(poolConfig.getNumTestsPerEvictionRun());
+		nodePoolConfig.setFairness(poolConfig.getFairness());
+
+		provider = new ClusterConnectionProvider(hostsAndPorts(redisURI, otherNodes), clientConfig, nodePoolConfig);
+		replicaReads = provider.getNodes().size() > getShards().size();
+		logger.info("Using a Redis Cluster of "+provider.getNodes().size()+" nodes, with "+getShards().size()+" primaries");
+	}
+
+	@Override
+	public Jedis getPrimary(String key) {
+		return new Jedis(provider.getConnectionFromSlot(JedisClusterCRC16.getSlot(key)));
+	}
+
+	@Override
+	public Jedis getReplica(String key) {
+		return new Jedis(provider.getReplicaConnectionFromSlot(JedisClusterCRC16.getSlot(key))); //the primary if the slot has no replicas
+	}
+
+	@Override
+	public boolean hasReplicas() {
+		return replicaReads;
+	}
+
+	@Override
+	public Object getShard(String key) {
+		return provider.getNode(JedisClusterCRC16.getSlot(key));
+	}
+
+	@Override
+	public List<Supplier<Jedis>> getShardReaders() {
+		ArrayList<Supplier<Jedis>> readers = new ArrayList<>();
+		for (int slot : getShards().values()) {
+			readers.add(() -> new Jedis(provider.getReplicaConnectionFromSlot(slot)));
+		}
+		return readers;
+	}
+
+	@Override
+	public Jedis connect() {
+		ArrayList<String> nodes = new ArrayList<>(provider.getNodes().keySet()); //a message published on any node reaches every node
+		String node = nodes.get(Math.floorMod(nextNode.getAndIncrement(), nodes.size())); //so a reconnect tries the next one
+		return new Jedis(HostAndPort.from(node), clientConfig);
+	}
+
+	@Override
+	public boolean isCluster() {
+		return true;
+	}
+
+	@Override
+	public void recover(Throwable t) {
+		for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+			if ((cause instanceof JedisRedirectionException) || (cause instanceof JedisConnectionException)) {
+				long now = System.currentTimeMillis();
+				long last = lastRenewal.get();
+				if ((now - last < RENEW_INTERVAL) || !lastRenewal.compareAndSet(last, now)) return;
+				try {
+					logger.info("Reloading the Redis Cluster slot map after "+cause.getClass().getSimpleName()+": "+cause.getMessage());
+					provider.renewSlotCache();
+				} catch (Throwable t2) {
+					logger.warning("Unable to reload the Redis Cluster slot map: "+t2.getClass().getName()+": "+t2.getMessage());
+				}
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		provider.close();
+	}
+
+	/** The primary that owns each range of slots, with the first slot in its range */
+	private Map<HostAndPort, Integer> getShards() {
+		LinkedHashMap<HostAndPort, Integer> shards = new LinkedHashMap<>();
+		for (int slot = 0; slot < SLOTS; slot++) {
+			HostAndPort node = provider.getNode(slot);
+			if (node != null) shards.putIfAbsent(node, slot);
+		}
+		return shards;
+	}
+}
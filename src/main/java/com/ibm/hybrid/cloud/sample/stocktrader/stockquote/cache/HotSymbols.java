@@ -0,0 +1,81 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Keeps track of which symbols get asked for the most, via per-symbol counters that get halved every time decay()
+  * is called, so that recent popularity counts for more than old.  Also keeps track of whether the symbols we
+  * refreshed ahead of time actually got asked for before we refreshed them again. */
+public class HotSymbols {
+	private final ConcurrentHashMap<String, AtomicLong> counts = new ConcurrentHashMap<>();
+	private final Map<String, Boolean> refreshedAhead = new ConcurrentHashMap<>(); //refreshed, and not asked for since
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder wasted = new LongAdder();
+
+	public void recordAccess(String symbol) {
+		counts.computeIfAbsent(symbol, key -> new AtomicLong()).incrementAndGet();
+		if (refreshedAhead.remove(symbol) != null) hits.increment();
+	}
+
+	public void recordRefresh(String symbol) {
+		if (refreshedAhead.put(symbol, Boolean.TRUE) != null) wasted.increment(); //nobody asked for the previous one
+	}
+
+	/** Halve every counter, forgetting about symbols nobody has asked for in a while */
+	public void decay() {
+		for (Map.Entry<String, AtomicLong> entry : counts.entrySet()) {
+			AtomicLong count = entry.getValue();
+			if (count.updateAndGet(value -> value >> 1) == 0) {
+				counts.remove(entry.getKey(), count);
+				refreshedAhead.remove(entry.getKey());
+			}
+		}
+	}
+
+	/** The specified number of most frequently requested symbols, most popular first */
+	public List<String> getHottest(int limit) {
+		ArrayList<Map.Entry<String, AtomicLong>> entries = new ArrayList<>(counts.entrySet());
+		entries.sort((first, second) -> Long.compare(second.getValue().get(), first.getValue().get()));
+
+		ArrayList<String> hottest = new ArrayList<>(Math.min(limit, entries.size()));
+		for (int index = 0; (index < limit) && (index < entries.size()); index++) {
+			hottest.add(entries.get(index).getKey());
+		}
+		return hottest;
+	}
+
+	/** Number of symbols being tracked */
+	public int size() {
+		return counts.size();
+	}
+
+	/** Number of refreshed-ahead quotes that got asked for before they were refreshed again */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/** Number of refreshed-ahead quotes that got refreshed again without anyone asking for them in between */
+	public long getWastedCount() {
+		return wasted.sum();
+	}
+}
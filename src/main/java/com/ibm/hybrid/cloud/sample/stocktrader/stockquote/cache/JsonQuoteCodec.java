@@ -0,0 +1,37 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.QuoteDeserializer;
+
+import java.nio.charset.StandardCharsets;
+
+/** Stores quotes in Redis as the same JSON we return from our REST API (the original format) */
+public class JsonQuoteCodec implements QuoteCodec {
+	public byte[] encode(Quote quote) {
+		return quote.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	public Quote decode(byte[] value) throws QuoteFormatException {
+		try {
+			return QuoteDeserializer.fromJson(value); //straight off the bytes, with no JSON-B or reflection involved
+		} catch (Throwable t) {
+			throw new QuoteFormatException("Unable to parse quote JSON", t);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+
+/** Exposes running totals kept elsewhere (the LongAdders in the cache classes, or the Redis pool's own counts) as
+  * mpMetrics Counters, so exporters type them as counters and rate() and resets work the way they should.  MP Metrics 5
+  * has no counter backed by a function, so each total gets a real Counter, and sync() adds however much the total has
+  * grown by since it was last called; it's meant to be run every few seconds. */
+public class MetricTotals {
+	private final MetricRegistry registry;
+	private final List<Total> totals = new CopyOnWriteArrayList<>();
+
+	public MetricTotals(MetricRegistry registry) {
+		this.registry = registry;
+	}
+
+	public void register(Metadata metadata, LongSupplier total) {
+		totals.add(new Total(registry.counter(metadata), total));
+	}
+
+	public synchronized void sync() {
+		for (Total total : totals) {
+			long current = total.supplier.getAsLong();
+			if (current > total.last) total.counter.inc(current - total.last);
+			total.last = current;
+		}
+	}
+
+	private static final class Total {
+		private final Counter counter;
+		private final LongSupplier supplier;
+		private long last = 0; //guarded by the MetricTotals
+
+		private Total(Counter counter, LongSupplier supplier) {
+			this.counter = counter;
+			this.supplier = supplier;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Remembers, for a short while, the symbols the quote providers have said they don't know, so that repeated requests
+  * for a bogus symbol don't each cost another upstream call (or several, counting the fallbacks).  Bounded, since the
+  * symbols come straight from the request URL: once full, expired entries are cleared out, and if it's still full,
+  * new symbols just aren't remembered. */
+public class NegativeCache {
+	private final ConcurrentHashMap<String, Long> expiries = new ConcurrentHashMap<>();
+	private final long timeToLive;
+	private final int maxSize;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/** @param timeToLive milliseconds to remember each symbol for
+	  * @param maxSize max number of symbols to remember at once */
+	public NegativeCache(long timeToLive, int maxSize) {
+		this.timeToLive = timeToLive;
+		this.maxSize = maxSize;
+	}
+
+	/** Returns true if the specified symbol is known to be unknown */
+	public boolean contains(String symbol) {
+		Long expiry = expiries.get(symbol);
+		if ((expiry != null) && (System.currentTimeMillis() < expiry)) {
+			hits.increment();
+			return true;
+		}
+		if (expiry != null) expiries.remove(symbol, expiry);
+		misses.increment();
+		return false;
+	}
+
+	public void put(String symbol) {
+		if ((timeToLive <= 0) || (symbol == null)) return;
+		if (expiries.size() >= maxSize) {
+			long now = System.currentTimeMillis();
+			expiries.values().removeIf(expiry -> expiry <= now);
+			if (expiries.size() >= maxSize) return;
+		}
+		expiries.put(symbol, System.currentTimeMillis() + timeToLive);
+	}
+
+	/** Forget the specified symbol, such as when a quote for it turns up after all */
+	public void remove(String symbol) {
+		expiries.remove(symbol);
+	}
+
+	public int size() {
+		return expiries.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+}
@@ -0,0 +1,111 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+//Logging (JSR 47)
+import java.util.logging.Logger;
+
+//mpMetrics
+import org.eclipse.microprofile.metrics.Histogram;
+
+//Jedis (Java for Redis)
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.Pool;
+
+/** Times every borrow from the Redis connection pool, feeding a histogram of how long callers waited for a connection,
+  * and optionally sizes the pool's minIdle from those waits: if more than 1% of the borrows in the last interval had to
+  * wait longer than the threshold (that is, the 99th percentile is over it), more idle connections are kept ready; if
+  * nobody waited and even the busiest moment used well under minIdle connections, fewer are kept. */
+public class PoolMonitor {
+	private static Logger logger = Logger.getLogger(PoolMonitor.class.getName());
+
+	private static final double SLOW_FRACTION = 0.01; //grow minIdle if more than this fraction of borrows were slow
+
+	private final Pool<Jedis> pool;
+	private final long slowBorrowNanos;
+	private final int minIdleFloor;
+	private final int minIdleCeiling;
+	private volatile Histogram borrowWait = null; //in microseconds
+	private final LongAdder borrows = new LongAdder(); //since the last resize
+	private final LongAdder slowBorrows = new LongAdder(); //since the last resize
+	private final AtomicInteger peakActive = new AtomicInteger(); //since the last resize
+	private final LongAdder resizes = new LongAdder();
+
+	/** @param slowBorrowMillis a borrow that waits longer than this counts as slow, for sizing purposes
+	  * @param minIdleFloor the smallest minIdle to shrink to
+	  * @param minIdleCeiling the largest minIdle to grow to */
+	public PoolMonitor(Pool<Jedis> pool, long slowBorrowMillis, int minIdleFloor, int minIdleCeiling) {
+		this.pool = pool;
+		this.slowBorrowNanos = TimeUnit.MILLISECONDS.toNanos(slowBorrowMillis);
+		this.minIdleFloor = minIdleFloor;
+		this.minIdleCeiling = minIdleCeiling;
+	}
+
+	public void setBorrowWaitHistogram(Histogram borrowWait) {
+		this.borrowWait = borrowWait;
+	}
+
+	/** Get a connection from the pool, noting how long we had to wait for it */
+	public Jedis getResource() {
+		long start = System.nanoTime();
+		Jedis jedis = pool.getResource();
+		long waited = System.nanoTime() - start;
+
+		Histogram histogram = borrowWait;
+		if (histogram != null) histogram.update(TimeUnit.NANOSECONDS.toMicros(waited));
+		borrows.increment();
+		if (waited > slowBorrowNanos) slowBorrows.increment();
+		int active = pool.getNumActive();
+		if (active > peakActive.get()) peakActive.accumulateAndGet(active, Math::max);
+		return jedis;
+	}
+
+	/** Adjust minIdle based on the borrows since the last call; meant to be called periodically */
+	public void resize() {
+		long total = borrows.sumThenReset();
+		long slow = slowBorrows.sumThenReset();
+		int peak = peakActive.getAndSet(pool.getNumActive());
+		int minIdle = pool.getMinIdle();
+		int step = Math.max(minIdle / 4, 1);
+
+		int newMinIdle = minIdle;
+		if ((total > 0) && (slow > total * SLOW_FRACTION)) {
+			newMinIdle = Math.min(Math.max(minIdle + step, peak), minIdleCeiling);
+		} else if ((slow == 0) && (peak < minIdle / 2)) {
+			newMinIdle = Math.max(Math.max(minIdle - step, peak), minIdleFloor);
+		}
+		if (newMinIdle == minIdle) return;
+
+		logger.info("Changing Redis pool minIdle from "+minIdle+" to "+newMinIdle+" ("+slow+" of "+total+" borrows were slow, peak of "+peak+" active)");
+		pool.setMinIdle(newMinIdle);
+		resizes.increment();
+		if (newMinIdle > pool.getNumIdle()) try { //rather than waiting for the next eviction run to top up the idle connections
+			pool.addObjects(newMinIdle - pool.getNumIdle());
+		} catch (Throwable t) {
+			logger.warning("Unable to add idle Redis connections: "+t.getClass().getName()+": "+t.getMessage());
+		}
+	}
+
+	/** Number of times minIdle has been changed */
+	public long getResizeCount() {
+		return resizes.sum();
+	}
+}
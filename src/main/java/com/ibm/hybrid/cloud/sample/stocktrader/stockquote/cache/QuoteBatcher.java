@@ -0,0 +1,132 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/** Collects the symbols that concurrent requests need from a quote provider over a short window (or until there
+  * are maxSymbols of them), then gets them all in a single upstream call, and hands each caller its own quote.
+  * Under a burst of cache misses, that's one call per window instead of one per symbol.  A symbol missing from the
+  * response comes back as null, the same as an empty single-symbol response; if the call fails, every caller in the
+  * batch gets the failure. */
+public class QuoteBatcher {
+	private final Function<List<String>, CompletionStage<Map<String, Quote>>> upstream;
+	private final ScheduledExecutorService scheduler;
+	private final long window;
+	private final int maxSymbols;
+	private LinkedHashMap<String, CompletableFuture<Quote>> pending = new LinkedHashMap<>(); //guarded by this
+	private long generation = 0; //guarded by this; so a scheduled flush doesn't cut short the batch after the one it was for
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder symbols = new LongAdder();
+
+	/** @param upstream gets the quotes for a list of symbols, keyed by those same symbols
+	  * @param window milliseconds to wait for more symbols after the first one of a batch arrives
+	  * @param maxSymbols max number of symbols per upstream call */
+	public QuoteBatcher(Function<List<String>, CompletionStage<Map<String, Quote>>> upstream, ScheduledExecutorService scheduler, long window, int maxSymbols) {
+		this.upstream = upstream;
+		this.scheduler = scheduler;
+		this.window = window;
+		this.maxSymbols = Math.max(maxSymbols, 1);
+	}
+
+	/** Returns the quote for the specified symbol, once the batch it's added to has been sent and answered */
+	public CompletionStage<Quote> get(String symbol) {
+		CompletableFuture<Quote> future;
+		Map<String, CompletableFuture<Quote>> full = null;
+		long scheduled = -1;
+		synchronized (this) {
+			future = pending.get(symbol);
+			if (future != null) return future; //already on its way
+
+			future = new CompletableFuture<>();
+			pending.put(symbol, future);
+			if (pending.size() >= maxSymbols) {
+				full = take();
+			} else if (pending.size() == 1) {
+				scheduled = generation;
+			}
+		}
+
+		if (full != null) {
+			send(full);
+		} else if (scheduled >= 0) {
+			long batch = scheduled;
+			try {
+				scheduler.schedule(() -> flush(batch), window, TimeUnit.MILLISECONDS);
+			} catch (Throwable t) { //such as during shutdown, so don't leave anyone waiting
+				flush(batch);
+			}
+		}
+		return future;
+	}
+
+	private void flush(long batch) {
+		Map<String, CompletableFuture<Quote>> ready;
+		synchronized (this) {
+			if ((batch != generation) || pending.isEmpty()) return; //already sent for being full
+			ready = take();
+		}
+		send(ready);
+	}
+
+	/** Must be called while synchronized */
+	private Map<String, CompletableFuture<Quote>> take() {
+		Map<String, CompletableFuture<Quote>> batch = pending;
+		pending = new LinkedHashMap<>();
+		generation++;
+		return batch;
+	}
+
+	private void send(Map<String, CompletableFuture<Quote>> batch) {
+		batches.increment();
+		symbols.add(batch.size());
+
+		CompletionStage<Map<String, Quote>> stage;
+		try {
+			stage = upstream.apply(new ArrayList<>(batch.keySet()));
+		} catch (Throwable t) { //the call failed before it even got going
+			stage = CompletableFuture.failedFuture(t);
+		}
+		stage.whenComplete((quotes, t) -> {
+			for (Map.Entry<String, CompletableFuture<Quote>> entry : batch.entrySet()) {
+				if (t != null) entry.getValue().completeExceptionally(t);
+				else entry.getValue().complete((quotes != null) ? quotes.get(entry.getKey()) : null);
+			}
+		});
+	}
+
+	/** Number of upstream calls made */
+	public long getBatchCount() {
+		return batches.sum();
+	}
+
+	/** Number of symbols asked for across all of the upstream calls */
+	public long getSymbolCount() {
+		return symbols.sum();
+	}
+}
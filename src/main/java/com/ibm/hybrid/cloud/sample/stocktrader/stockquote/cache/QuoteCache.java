@@ -0,0 +1,171 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.QuoteValue;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Bounded, thread-safe, in-process quote cache, consulted before Redis so a popular symbol costs no network hops.
+  * Entries are split across several independently locked LRU segments, so request threads rarely contend.  An entry
+  * stops being served by get() once its quote is older than the time-to-live, but stays available via getAnyAge() as
+  * a backup (for when Redis and the quote providers are unavailable) until the size limit evicts it.  Quotes are held
+  * as immutable QuoteValues, and handed out as copies, so callers are free to change the quotes they get back. */
+public class QuoteCache {
+	private static final int SEGMENTS = 16; //must be a power of two
+
+	private final Segment[] segments = new Segment[SEGMENTS];
+	private final long timeToLive;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/** @param maxSize max number of quotes to hold
+	  * @param timeToLive milliseconds after the quote's time that it's no longer considered fresh */
+	public QuoteCache(int maxSize, long timeToLive) {
+		this.timeToLive = timeToLive;
+		int segmentSize = Math.max(maxSize / SEGMENTS, 1);
+		for (int index = 0; index < SEGMENTS; index++) {
+			segments[index] = new Segment(segmentSize);
+		}
+	}
+
+	/** Returns the cached quote for the specified symbol if it's still fresh, otherwise null */
+	public Quote get(String symbol) {
+		Segment segment = segmentFor(symbol);
+		Entry entry;
+		synchronized (segment) {
+			entry = segment.get(symbol);
+		}
+
+		if ((entry == null) || (System.currentTimeMillis() > entry.expiresAt)) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.quote.toQuote();
+	}
+
+	/** Returns the cached quote for the specified symbol no matter how old it is, or null if there isn't one */
+	public Quote getAnyAge(String symbol) {
+		Segment segment = segmentFor(symbol);
+		Entry entry;
+		synchronized (segment) {
+			entry = segment.get(symbol);
+		}
+		return (entry != null) ? entry.quote.toQuote() : null;
+	}
+
+	/** Cache a quote, which will be served by get() until it's older than the time-to-live */
+	public void put(String symbol, Quote quote) {
+		if (quote == null) return;
+		long time = (quote.getTime() != 0) ? quote.getTime() : System.currentTimeMillis();
+		put(symbol, new Entry(quote, time + timeToLive));
+	}
+
+	/** Cache a quote only as a backup, for when we can't get it from anywhere else */
+	public void putBackup(String symbol, Quote quote) {
+		if (quote == null) return;
+		put(symbol, new Entry(quote, 0));
+	}
+
+	public void invalidate(String symbol) {
+		Segment segment = segmentFor(symbol);
+		synchronized (segment) {
+			segment.remove(symbol);
+		}
+	}
+
+	/** Returns a copy of every cached quote, whatever its age, keyed by symbol (without affecting what's least recently used) */
+	public Map<String, Quote> getAll() {
+		HashMap<String, QuoteValue> values = new HashMap<>();
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				for (Map.Entry<String, Entry> entry : segment.entrySet()) values.put(entry.getKey(), entry.getValue().quote);
+			}
+		}
+
+		HashMap<String, Quote> quotes = new HashMap<>();
+		for (Map.Entry<String, QuoteValue> value : values.entrySet()) quotes.put(value.getKey(), value.getValue().toQuote());
+		return quotes;
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	private void put(String symbol, Entry entry) {
+		Segment segment = segmentFor(symbol);
+		synchronized (segment) {
+			segment.put(symbol, entry);
+		}
+	}
+
+	private Segment segmentFor(String symbol) {
+		int hash = symbol.hashCode();
+		return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+	}
+
+	private static final class Entry {
+		private final QuoteValue quote;
+		private final long expiresAt;
+
+		private Entry(Quote quote, long expiresAt) {
+			this.quote = quote.toValue();
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/** An access-ordered LinkedHashMap that drops its least recently used entry once it's full */
+	private final class Segment extends LinkedHashMap<String, Entry> {
+		private final int capacity;
+
+		private Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			if (size() <= capacity) return false;
+			evictions.increment();
+			return true;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+
+//Logging (JSR 47)
+import java.util.logging.Logger;
+
+/** Fans quotes out to streaming clients, each subscribed to its own set of symbols.  A quote is only passed on when
+  * its price differs from the last one published for that symbol, so the clients hear about changes rather than every
+  * refresh.  Each subscriber has at most one send in flight; anything published for it in the meantime waits, keeping
+  * just the latest quote per symbol, so a slow client gets fewer (but never stale) updates instead of a growing
+  * backlog, and never holds up the others. */
+public class QuoteFeed {
+	private static Logger logger = Logger.getLogger(QuoteFeed.class.getName());
+
+	/** Where a subscriber's quotes go, such as an SSE connection */
+	public interface Sink {
+		/** Send a quote, completing once it's been written */
+		CompletionStage<?> send(Quote quote);
+
+		boolean isClosed();
+
+		void close();
+	}
+
+	private final Executor executor;
+	private final ConcurrentHashMap<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<String, Quote> latest = new ConcurrentHashMap<>(); //the last quote published for each symbol
+	private final Set<Subscriber> all = ConcurrentHashMap.newKeySet();
+	private final LongAdder sent = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+
+	/** @param executor runs the sends, so publishers never wait on a client */
+	public QuoteFeed(Executor executor) {
+		this.executor = executor;
+	}
+
+	/** Start sending the specified symbols' price changes to the sink, beginning with the latest quote for each (if any) */
+	public Subscriber subscribe(Set<String> symbols, Sink sink) {
+		Subscriber subscriber = new Subscriber(symbols, sink);
+		all.add(subscriber);
+		for (String symbol : symbols) {
+			subscribers.computeIfAbsent(symbol, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+			Quote quote = latest.get(symbol);
+			if (quote != null) subscriber.offer(symbol, quote);
+		}
+		logger.fine("New quote feed subscriber for "+symbols);
+		return subscriber;
+	}
+
+	public void unsubscribe(Subscriber subscriber) {
+		if (!all.remove(subscriber)) return;
+		for (String symbol : subscriber.symbols) {
+			subscribers.computeIfPresent(symbol, (key, set) -> {
+				set.remove(subscriber);
+				return set.isEmpty() ? null : set;
+			});
+		}
+	}
+
+	/** Pass the quote on to the symbol's subscribers, if its price has changed.  Quotes for a symbol can be published
+	  * concurrently (a local refresh and an update from another pod, say), so whether this one is newer than the last,
+	  * and which quote it replaces, is settled atomically. */
+	public void publish(String symbol, Quote quote) {
+		if (quote == null) return;
+		Quote[] previous = { null };
+		Quote current = latest.compute(symbol, (key, last) -> {
+			if ((last != null) && (last.getTime() > quote.getTime())) return last; //out of order; we've already published something newer
+			previous[0] = last;
+			return quote;
+		});
+		if ((current != quote) || !quote.priceChanged(previous[0])) return;
+
+		Set<Subscriber> interested = subscribers.get(symbol);
+		if (interested != null) for (Subscriber subscriber : interested) {
+			subscriber.offer(symbol, quote);
+		}
+	}
+
+	/** The symbols at least one client is subscribed to */
+	public Set<String> getSymbols() {
+		return Collections.unmodifiableSet(subscribers.keySet());
+	}
+
+	/** Whether the latest quote for the symbol has been published yet */
+	public boolean hasQuote(String symbol) {
+		return latest.containsKey(symbol);
+	}
+
+	/** Drop any subscribers whose clients have gone away without us noticing (that is, without a failed send) */
+	public void prune() {
+		for (Subscriber subscriber : all) {
+			if (subscriber.sink.isClosed()) unsubscribe(subscriber);
+		}
+	}
+
+	public int getSubscriberCount() {
+		return all.size();
+	}
+
+	/** Number of quotes sent to subscribers */
+	public long getSentCount() {
+		return sent.sum();
+	}
+
+	/** Number of quotes not sent because a newer one for the same symbol replaced it while the subscriber was busy */
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+
+	/** Number of subscribers dropped because a send to them failed */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	public class Subscriber {
+		private final Set<String> symbols;
+		private final Sink sink;
+		private final LinkedHashMap<String, Quote> pending = new LinkedHashMap<>(); //the newest unsent quote per symbol
+		private boolean sending = false; //whether a send is queued or in flight; guarded by pending
+
+		private Subscriber(Set<String> symbols, Sink sink) {
+			this.symbols = symbols;
+			this.sink = sink;
+		}
+
+		private void offer(String symbol, Quote quote) {
+			boolean start;
+			synchronized (pending) {
+				Quote waiting = pending.get(symbol);
+				if ((waiting != null) && (waiting.getTime() > quote.getTime())) return; //a newer one got here first
+				if (pending.put(symbol, quote) != null) coalesced.increment();
+				start = !sending; //otherwise the send in flight will pick this up when it's done
+				sending = true;
+			}
+			if (start) sendLater();
+		}
+
+		private void sendLater() {
+			try {
+				executor.execute(this::sendNext);
+			} catch (Throwable t) { //such as a RejectedExecutionException
+				synchronized (pending) {
+					sending = false;
+				}
+				logger.warning("Unable to send quote update: "+t.getClass().getName()+": "+t.getMessage());
+			}
+		}
+
+		private void sendNext() {
+			Quote quote;
+			synchronized (pending) {
+				Iterator<Quote> quotes = pending.values().iterator();
+				if (!quotes.hasNext()) {
+					sending = false;
+					return;
+				}
+				quote = quotes.next();
+				quotes.remove();
+			}
+
+			CompletionStage<?> result;
+			try {
+				result = sink.send(quote);
+			} catch (Throwable t) {
+				fail(t);
+				return;
+			}
+			result.whenComplete((ignored, t) -> {
+				if (t != null) {
+					fail(t);
+				} else {
+					sent.increment();
+					sendLater();
+				}
+			});
+		}
+
+		private void fail(Throwable t) {
+			logger.fine("Dropping quote feed subscriber after a failed send: "+t.getClass().getName()+": "+t.getMessage());
+			dropped.increment();
+			unsubscribe(this);
+			try {
+				sink.close();
+			} catch (Throwable t2) {
+				//already gone
+			}
+		}
+	}
+}
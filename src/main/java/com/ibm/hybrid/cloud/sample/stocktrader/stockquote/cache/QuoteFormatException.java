@@ -0,0 +1,28 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+/** Thrown when a value read from Redis can't be turned back into a Quote */
+public class QuoteFormatException extends Exception {
+	public QuoteFormatException(String message) {
+		super(message);
+	}
+
+	public QuoteFormatException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,119 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.time.Duration;
+
+import org.eclipse.microprofile.metrics.Counter;
+import org.eclipse.microprofile.metrics.Metadata;
+import org.eclipse.microprofile.metrics.MetricRegistry;
+import org.eclipse.microprofile.metrics.MetricUnits;
+import org.eclipse.microprofile.metrics.Tag;
+import org.eclipse.microprofile.metrics.Timer;
+
+/** Timers and counters for the quote lookup hot path: which tier each quote was resolved from and how long that took,
+  * plus the latency of each Redis operation and each upstream call.  Every metric is looked up once, here, so recording
+  * is just an update of an existing timer or counter, and the tags only ever take the handful of values below, so the
+  * number of time series stays fixed no matter how many symbols are asked for.  Without a registry (such as via main()
+  * or in the benchmarks), recording does nothing. */
+public class QuoteMetrics {
+	/** Where a quote came from, in the order they're tried */
+	public enum Tier {
+		LOCAL("local"), REDIS("redis"), API_CONNECT("apiConnect"), IEX("iex"), BACKUP("backup"), ERROR("error"), TEST("test");
+
+		private final String tag;
+
+		Tier(String tag) {
+			this.tag = tag;
+		}
+	}
+
+	/** The Redis operations that are timed */
+	public enum RedisOp {
+		GET("get"), MGET("mget"), SET("set");
+
+		private final String tag;
+
+		RedisOp(String tag) {
+			this.tag = tag;
+		}
+	}
+
+	private final Timer[] resolve = new Timer[Tier.values().length];
+	private final Timer[] upstream = new Timer[Tier.values().length]; //only API_CONNECT and IEX are used
+	private final Timer[] redis = new Timer[RedisOp.values().length];
+	private final Counter redisHits;
+	private final Counter redisMisses;
+	private final Counter staleBackground;
+	private final Counter staleSync;
+
+	public QuoteMetrics(MetricRegistry registry) {
+		if (registry == null) {
+			redisHits = redisMisses = staleBackground = staleSync = null;
+			return;
+		}
+
+		Metadata resolveMetadata = Metadata.builder().withName("quote.resolve")
+			.withDescription("Time to resolve a quote request, tagged by the tier the quote came from").withUnit(MetricUnits.NANOSECONDS).build();
+		for (Tier tier : Tier.values()) resolve[tier.ordinal()] = registry.timer(resolveMetadata, new Tag("tier", tier.tag));
+
+		Metadata upstreamMetadata = Metadata.builder().withName("quote.upstream.latency")
+			.withDescription("Time taken by calls to the quote providers, tagged by provider").withUnit(MetricUnits.NANOSECONDS).build();
+		for (Tier tier : new Tier[] {Tier.API_CONNECT, Tier.IEX}) upstream[tier.ordinal()] = registry.timer(upstreamMetadata, new Tag("provider", tier.tag));
+
+		Metadata redisMetadata = Metadata.builder().withName("quote.redis.latency")
+			.withDescription("Time taken by Redis reads and writes of quotes, tagged by operation").withUnit(MetricUnits.NANOSECONDS).build();
+		for (RedisOp op : RedisOp.values()) redis[op.ordinal()] = registry.timer(redisMetadata, new Tag("op", op.tag));
+
+		Metadata lookupMetadata = Metadata.builder().withName("quote.redis.lookups")
+			.withDescription("Number of single-quote lookups in Redis, tagged by whether the quote was there").build();
+		redisHits = registry.counter(lookupMetadata, new Tag("result", "hit"));
+		redisMisses = registry.counter(lookupMetadata, new Tag("result", "miss"));
+
+		Metadata staleMetadata = Metadata.builder().withName("quote.stale")
+			.withDescription("Number of stale quotes found in Redis, tagged by whether they were refreshed in the background or while the caller waited").build();
+		staleBackground = registry.counter(staleMetadata, new Tag("refresh", "background"));
+		staleSync = registry.counter(staleMetadata, new Tag("refresh", "sync"));
+	}
+
+	/** Record a quote request resolved from the specified tier, that started at the specified System.nanoTime() */
+	public void resolved(Tier tier, long start) {
+		update(resolve[tier.ordinal()], start);
+	}
+
+	public void upstream(Tier provider, long start) {
+		update(upstream[provider.ordinal()], start);
+	}
+
+	public void redis(RedisOp op, long start) {
+		update(redis[op.ordinal()], start);
+	}
+
+	public void redisLookup(boolean hit) {
+		Counter counter = hit ? redisHits : redisMisses;
+		if (counter != null) counter.inc();
+	}
+
+	public void stale(boolean background) {
+		Counter counter = background ? staleBackground : staleSync;
+		if (counter != null) counter.inc();
+	}
+
+	private static void update(Timer timer, long start) {
+		if (timer != null) timer.update(Duration.ofNanos(System.nanoTime() - start));
+	}
+}
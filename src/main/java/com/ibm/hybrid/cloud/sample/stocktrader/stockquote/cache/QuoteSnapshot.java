@@ -0,0 +1,126 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Logging (JSR 47)
+import java.util.logging.Logger;
+
+/** A file holding the last known quotes, so a restarted pod can warm its local cache without asking Redis or the quote
+  * providers.  The file is a magic number and a count, followed by each symbol (as it was asked for) and its quote as
+  * a length-prefixed BinaryQuoteCodec value; it's read back via a memory-mapped buffer, so loading it is little more than decoding those values.  It's
+  * written to a temporary file first and then moved into place, so a reader never sees a half-written snapshot. */
+public class QuoteSnapshot {
+	private static Logger logger = Logger.getLogger(QuoteSnapshot.class.getName());
+
+	private static final int MAGIC = 0x53515331; //"SQS1"
+	private static final int HEADER_LENGTH = 4 + 4; //magic, count
+
+	private final Path path;
+	private final BinaryQuoteCodec codec = new BinaryQuoteCodec();
+
+	public QuoteSnapshot(Path path) {
+		this.path = path;
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	/** Replace the snapshot with the specified quotes, keyed by symbol */
+	public void write(Map<String, Quote> quotes) throws IOException {
+		ArrayList<byte[]> entries = new ArrayList<>(quotes.size() * 2);
+		int length = HEADER_LENGTH;
+		for (Map.Entry<String, Quote> entry : quotes.entrySet()) {
+			byte[] symbol = entry.getKey().getBytes(StandardCharsets.UTF_8);
+			byte[] value = codec.encode(entry.getValue());
+			entries.add(symbol);
+			entries.add(value);
+			length += 4 + symbol.length + 4 + value.length;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		buffer.putInt(MAGIC);
+		buffer.putInt(quotes.size());
+		for (byte[] bytes : entries) {
+			buffer.putInt(bytes.length);
+			buffer.put(bytes);
+		}
+		buffer.flip();
+
+		Path parent = path.toAbsolutePath().getParent();
+		if (parent != null) Files.createDirectories(parent);
+		Path temp = path.resolveSibling(path.getFileName()+".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (buffer.hasRemaining()) channel.write(buffer);
+		}
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/** Returns the quotes in the snapshot, or an empty list if there isn't one.  A damaged snapshot gives up at the
+	  * first value it can't make sense of, returning the quotes read before it. */
+	public Map<String, Quote> read() throws IOException {
+		LinkedHashMap<String, Quote> quotes = new LinkedHashMap<>();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			if (channel.size() < HEADER_LENGTH) return quotes;
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC) {
+				logger.warning("Ignoring "+path+", as it isn't a quote snapshot");
+				return quotes;
+			}
+
+			int count = buffer.getInt();
+			for (int index = 0; index < count; index++) {
+				byte[] symbol = next(buffer);
+				byte[] value = (symbol != null) ? next(buffer) : null;
+				if (value == null) break;
+				quotes.put(new String(symbol, StandardCharsets.UTF_8), codec.decode(value));
+			}
+			if (quotes.size() < count) logger.warning("Quote snapshot "+path+" is truncated - read "+quotes.size()+" of "+count+" quotes");
+		} catch (NoSuchFileException e) {
+			//nothing saved yet
+		} catch (QuoteFormatException e) {
+			logger.warning("Quote snapshot "+path+" is damaged - read "+quotes.size()+" quotes before the bad one");
+		}
+		return quotes;
+	}
+
+	/** Returns the next length-prefixed value in the buffer, or null if it runs past the end */
+	private static byte[] next(ByteBuffer buffer) {
+		if (buffer.remaining() < 4) return null;
+		int length = buffer.getInt();
+		if ((length < 0) || (length > buffer.remaining())) return null;
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return bytes;
+	}
+}
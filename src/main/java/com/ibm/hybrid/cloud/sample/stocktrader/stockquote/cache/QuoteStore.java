@@ -0,0 +1,348 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+//Logging (JSR 47)
+import java.util.logging.Logger;
+
+//Jedis (Java for Redis)
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.params.SetParams;
+
+/** Reads and writes quotes in Redis, in one of three formats: JSON strings (the original format), compact binary
+  * strings (see BinaryQuoteCodec), or Redis hashes with a field per Quote property.  Each quote is stored under
+  * its own key, in a namespace of our own, so we can SCAN just our keys.  In a Redis Cluster, keys in different hash
+  * slots can't share an MGET, so batches of keys are read with a pipeline of GETs instead.
+  *
+  * Given an expiry, each quote is written with a Redis TTL, so symbols nobody asks for anymore drop out of Redis on
+  * their own, and lookups read the remaining TTL along with the quote, in the same round trip.  A quote is stale (but
+  * still worth serving while it's refreshed, or if it can't be) once its key has been around for longer than the
+  * soft time-to-live; keys with no TTL (such as ones written before expiry was turned on) are judged by the quote's
+  * own time instead, the way they always were. */
+public class QuoteStore {
+	private static Logger logger = Logger.getLogger(QuoteStore.class.getName());
+
+	public enum Format { JSON, BINARY, HASH }
+
+	private static final String SYMBOL = "symbol";
+	private static final String PRICE  = "price";
+	private static final String DATE   = "date";
+	private static final String TIME   = "time";
+
+	private final String keyPrefix;
+	private final Format format;
+	private final QuoteCodec codec;
+	private final boolean cluster;
+	private long timeToLive = 0; //milliseconds; 0 for keys that never expire
+	private long softTimeToLive = Long.MAX_VALUE; //milliseconds
+
+	public QuoteStore(String keyPrefix, Format format) {
+		this(keyPrefix, format, false);
+	}
+
+	/** @param cluster whether Redis is a Redis Cluster */
+	public QuoteStore(String keyPrefix, Format format, boolean cluster) {
+		this.keyPrefix = keyPrefix;
+		this.format = format;
+		this.cluster = cluster;
+		codec = (format == Format.JSON) ? new JsonQuoteCodec() : new BinaryQuoteCodec(); //binary also reads JSON
+	}
+
+	public Format getFormat() {
+		return format;
+	}
+
+	/** @param timeToLive milliseconds after being written that a quote is removed from Redis, or 0 to keep it forever
+	  * @param softTimeToLive milliseconds after being written that a quote is stale */
+	public void setExpiry(long timeToLive, long softTimeToLive) {
+		this.timeToLive = timeToLive;
+		this.softTimeToLive = softTimeToLive;
+	}
+
+	public long getTimeToLive() {
+		return timeToLive;
+	}
+
+	/** The Redis key under which the quote for the specified symbol is cached */
+	public String key(String symbol) {
+		return keyPrefix + symbol;
+	}
+
+	/** The symbol whose quote is cached under the specified key */
+	public String symbol(String key) {
+		return key.substring(keyPrefix.length());
+	}
+
+	/** SCAN parameters that only match our quote keys */
+	public ScanParams scanParams(int count) {
+		return new ScanParams().match(keyPrefix + "*").count(count);
+	}
+
+	/** The Redis type of our quote keys, to filter SCAN results by */
+	public String scanType() {
+		return (format == Format.HASH) ? "hash" : "string";
+	}
+
+	/** Returns the cached quote for the specified symbol, or null if it isn't in Redis */
+	public Quote get(Jedis jedis, String symbol) throws QuoteFormatException {
+		try {
+			if (format == Format.HASH) {
+				Map<String, String> fields = jedis.hgetAll(key(symbol));
+				return fields.isEmpty() ? null : fromFields(fields);
+			}
+
+			byte[] value = jedis.get(bytes(key(symbol)));
+			return (value != null) ? codec.decode(value) : null;
+		} catch (JedisDataException e) {
+			if (isWrongType(e)) throw new QuoteFormatException("Quote for "+symbol+" was stored in a different format", e);
+			throw e;
+		}
+	}
+
+	/** Returns the cached quote for the specified symbol, and whether it's stale, or null if it isn't in Redis.  With an
+	  * expiry, the key's remaining TTL is read in the same round trip as the quote. */
+	public Lookup lookup(Jedis jedis, String symbol) throws QuoteFormatException {
+		if (timeToLive <= 0) {
+			Quote quote = get(jedis, symbol);
+			return (quote != null) ? new Lookup(quote, isStale(quote, -1)) : null;
+		}
+
+		try {
+			byte[] key = bytes(key(symbol));
+			Pipeline pipeline = jedis.pipelined();
+			Response<Map<byte[], byte[]>> fields = (format == Format.HASH) ? pipeline.hgetAll(key) : null;
+			Response<byte[]> value = (format == Format.HASH) ? null : pipeline.get(key);
+			Response<Long> remaining = pipeline.pttl(key);
+			pipeline.sync();
+
+			Quote quote;
+			if (format == Format.HASH) {
+				Map<byte[], byte[]> hash = fields.get();
+				quote = hash.isEmpty() ? null : fromFields(strings(hash));
+			} else {
+				quote = (value.get() != null) ? codec.decode(value.get()) : null;
+			}
+			return (quote != null) ? new Lookup(quote, isStale(quote, remaining.get())) : null;
+		} catch (JedisDataException e) {
+			if (isWrongType(e)) throw new QuoteFormatException("Quote for "+symbol+" was stored in a different format", e);
+			throw e;
+		}
+	}
+
+	/** Returns the cached quotes under the specified keys, all in one round trip.  Entries are null for
+	  * keys that aren't there, or whose values can't be read.  In a Redis Cluster, the keys must all be on the
+	  * node the connection is to. */
+	public List<Quote> getAll(Jedis jedis, List<String> keys) {
+		ArrayList<Quote> quotes = new ArrayList<>(keys.size());
+		if (keys.isEmpty()) return quotes;
+
+		if (format == Format.HASH) {
+			Pipeline pipeline = jedis.pipelined();
+			ArrayList<Response<Map<String, String>>> responses = new ArrayList<>(keys.size());
+			for (String key : keys) responses.add(pipeline.hgetAll(key));
+			pipeline.sync();
+
+			for (int index = 0; index < keys.size(); index++) {
+				Quote quote = null;
+				try {
+					Map<String, String> fields = responses.get(index).get();
+					if (!fields.isEmpty()) quote = fromFields(fields);
+				} catch (Throwable t) {
+					logger.info("Unable to read quote from Redis under "+keys.get(index)+": "+t.getMessage());
+				}
+				quotes.add(quote);
+			}
+		} else {
+			List<byte[]> values;
+			if (cluster) {
+				Pipeline pipeline = jedis.pipelined();
+				ArrayList<Response<byte[]>> responses = new ArrayList<>(keys.size());
+				for (String key : keys) responses.add(pipeline.get(bytes(key)));
+				pipeline.sync();
+
+				values = new ArrayList<>(keys.size());
+				for (Response<byte[]> response : responses) values.add(response.get());
+			} else {
+				byte[][] keyBytes = new byte[keys.size()][];
+				for (int index = 0; index < keyBytes.length; index++) keyBytes[index] = bytes(keys.get(index));
+				values = jedis.mget(keyBytes);
+			}
+
+			for (int index = 0; index < keys.size(); index++) {
+				Quote quote = null;
+				byte[] value = values.get(index);
+				if (value != null) try {
+					quote = codec.decode(value);
+				} catch (QuoteFormatException e) {
+					logger.info("Unable to read quote from Redis under "+keys.get(index)+": "+e.getMessage());
+				}
+				quotes.add(quote);
+			}
+		}
+		return quotes;
+	}
+
+	/** Same as getAll, but by symbol rather than by key */
+	public List<Quote> getAllBySymbol(Jedis jedis, List<String> symbols) {
+		ArrayList<String> keys = new ArrayList<>(symbols.size());
+		for (String symbol : symbols) keys.add(key(symbol));
+		return getAll(jedis, keys);
+	}
+
+	/** Same as lookup, but for several symbols in one round trip.  Entries are null for symbols that aren't there, or
+	  * whose values can't be read.  In a Redis Cluster, the symbols must all be on the node the connection is to. */
+	public List<Lookup> lookupAll(Jedis jedis, List<String> symbols) {
+		ArrayList<Lookup> lookups = new ArrayList<>(symbols.size());
+		if (timeToLive <= 0) {
+			for (Quote quote : getAllBySymbol(jedis, symbols)) lookups.add((quote != null) ? new Lookup(quote, isStale(quote, -1)) : null);
+			return lookups;
+		}
+
+		Pipeline pipeline = jedis.pipelined();
+		ArrayList<Response<?>> values = new ArrayList<>(symbols.size());
+		ArrayList<Response<Long>> remaining = new ArrayList<>(symbols.size());
+		for (String symbol : symbols) {
+			byte[] key = bytes(key(symbol));
+			values.add((format == Format.HASH) ? pipeline.hgetAll(key) : pipeline.get(key));
+			remaining.add(pipeline.pttl(key));
+		}
+		pipeline.sync();
+
+		for (int index = 0; index < symbols.size(); index++) {
+			Lookup lookup = null;
+			try {
+				Object value = values.get(index).get();
+				Quote quote = null;
+				if (value instanceof byte[]) {
+					quote = codec.decode((byte[]) value);
+				} else if ((value instanceof Map) && !((Map<?, ?>) value).isEmpty()) {
+					@SuppressWarnings("unchecked")
+					Map<byte[], byte[]> hash = (Map<byte[], byte[]>) value;
+					quote = fromFields(strings(hash));
+				}
+				if (quote != null) lookup = new Lookup(quote, isStale(quote, remaining.get(index).get()));
+			} catch (Throwable t) {
+				logger.info("Unable to read quote from Redis for "+symbols.get(index)+": "+t.getMessage());
+			}
+			lookups.add(lookup);
+		}
+		return lookups;
+	}
+
+	/** Whether a quote read from Redis is past its soft time-to-live: judged by how long its key has left to live, if it
+	  * has a TTL (so what counts is the time since it was written), otherwise by the quote's own time */
+	private boolean isStale(Quote quote, long remaining) {
+		if ((timeToLive > 0) && (remaining >= 0)) return timeToLive - remaining > softTimeToLive;
+		return (quote.getTime() == 0) || (System.currentTimeMillis() - quote.getTime() > softTimeToLive);
+	}
+
+	public void set(Jedis jedis, String symbol, Quote quote) {
+		if (format == Format.HASH) {
+			Pipeline pipeline = jedis.pipelined();
+			set(pipeline, symbol, quote);
+			pipeline.sync();
+		} else {
+			if (timeToLive > 0) jedis.set(bytes(key(symbol)), codec.encode(quote), SetParams.setParams().px(timeToLive));
+			else jedis.set(bytes(key(symbol)), codec.encode(quote));
+		}
+	}
+
+	/** Queue up the write of a quote as part of a pipeline.  A hash takes a few commands to write, so they're sent as a
+	  * MULTI/EXEC transaction of their own, so nobody sees the key missing or half written, and it can't be left without
+	  * its TTL.  (Just that key's commands, since in a Redis Cluster a transaction can't span hash slots.) */
+	public void set(Pipeline pipeline, String symbol, Quote quote) {
+		byte[] key = bytes(key(symbol));
+		if (format == Format.HASH) {
+			pipeline.sendCommand(new CommandArguments(Protocol.Command.MULTI));
+			pipeline.del(key); //in case it was previously stored in a different format
+			pipeline.hset(key, toFields(quote));
+			if (timeToLive > 0) pipeline.pexpire(key, timeToLive);
+			pipeline.sendCommand(new CommandArguments(Protocol.Command.EXEC));
+		} else if (timeToLive > 0) {
+			pipeline.set(key, codec.encode(quote), SetParams.setParams().px(timeToLive));
+		} else {
+			pipeline.set(key, codec.encode(quote));
+		}
+	}
+
+	private static Map<byte[], byte[]> toFields(Quote quote) {
+		HashMap<byte[], byte[]> fields = new HashMap<>();
+		if (quote.getSymbol() != null) fields.put(bytes(SYMBOL), bytes(quote.getSymbol()));
+		fields.put(bytes(PRICE), bytes(Double.toString(quote.getPrice())));
+		if (quote.getDate() != null) fields.put(bytes(DATE), bytes(quote.getDate()));
+		fields.put(bytes(TIME), bytes(Long.toString(quote.getTime())));
+		return fields;
+	}
+
+	private static Quote fromFields(Map<String, String> fields) throws QuoteFormatException {
+		try {
+			String time = fields.get(TIME);
+			return new Quote(fields.get(SYMBOL), Double.parseDouble(fields.get(PRICE)), fields.get(DATE), (time != null) ? Long.parseLong(time) : 0);
+		} catch (RuntimeException e) {
+			throw new QuoteFormatException("Unable to read quote fields", e);
+		}
+	}
+
+	private static Map<String, String> strings(Map<byte[], byte[]> hash) {
+		HashMap<String, String> fields = new HashMap<>();
+		for (Map.Entry<byte[], byte[]> field : hash.entrySet()) {
+			fields.put(new String(field.getKey(), StandardCharsets.UTF_8), new String(field.getValue(), StandardCharsets.UTF_8));
+		}
+		return fields;
+	}
+
+	private static boolean isWrongType(JedisDataException e) {
+		return (e.getMessage() != null) && e.getMessage().startsWith("WRONGTYPE");
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/** A quote read from Redis, and whether it's past its soft time-to-live */
+	public static final class Lookup {
+		private final Quote quote;
+		private final boolean stale;
+
+		public Lookup(Quote quote, boolean stale) {
+			this.quote = quote;
+			this.stale = stale;
+		}
+
+		public Quote getQuote() {
+			return quote;
+		}
+
+		public boolean isStale() {
+			return stale;
+		}
+	}
+}
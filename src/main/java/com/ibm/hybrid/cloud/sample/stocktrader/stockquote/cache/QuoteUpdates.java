@@ -0,0 +1,128 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.QuoteDeserializer;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+//Logging (JSR 47)
+import java.util.logging.Logger;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPubSub;
+
+/** Keeps the local cache in each pod coherent with the others, via a Redis pub/sub channel.  Whenever a pod writes
+  * a quote to Redis it also publishes it here, and every other pod puts it straight into its own local cache, so
+  * nobody keeps serving an older price than the one in Redis, and nobody has to ask Redis to find that out. */
+public class QuoteUpdates {
+	private static Logger logger = Logger.getLogger(QuoteUpdates.class.getName());
+
+	public static final String CHANNEL = "stock-quote:updates";
+	private static final char UPDATE = 'U'; //a fresh quote, to be served from the local cache
+	private static final char BACKUP = 'B'; //a quote only to be used if it can't be gotten any other way
+	private static final long RECONNECT_DELAY = 5000; //milliseconds
+
+	private final String podId = UUID.randomUUID().toString(); //so we can ignore our own messages
+	private final QuoteCache cache;
+	private final Supplier<Jedis> connector; //opens a new connection, outside of any pool
+	private final Listener listener = new Listener();
+	private final LongAdder received = new LongAdder();
+	private volatile QuoteFeed feed = null;
+	private volatile boolean running = false;
+
+	public QuoteUpdates(QuoteCache cache, Supplier<Jedis> connector) {
+		this.cache = cache;
+		this.connector = connector;
+	}
+
+	/** Also pass the updates from other pods on to the streaming clients */
+	public void setFeed(QuoteFeed feed) {
+		this.feed = feed;
+	}
+
+	/** The message to publish on CHANNEL after writing a fresh quote to Redis */
+	public String updateMessage(String symbol, Quote quote) {
+		return UPDATE + podId + symbol + " " + quote.toString();
+	}
+
+	/** The message to publish on CHANNEL after putting a quote in the local cache only as a backup */
+	public String backupMessage(String symbol, Quote quote) {
+		return BACKUP + podId + symbol + " " + quote.toString();
+	}
+
+	/** Start listening for other pods' updates, on a dedicated connection (subscribing ties it up for good) */
+	public void start(ThreadFactory threadFactory) {
+		running = true;
+		threadFactory.newThread(() -> {
+			while (running) {
+				try (Jedis jedis = connector.get()) {
+					logger.info("Subscribing to quote updates on "+CHANNEL);
+					jedis.subscribe(listener, CHANNEL); //blocks until we unsubscribe or the connection drops
+				} catch (Throwable t) {
+					logger.warning("Lost subscription to quote updates: "+t.getClass().getName()+": "+t.getMessage());
+				}
+				if (running) try {
+					Thread.sleep(RECONNECT_DELAY);
+				} catch (InterruptedException e) {
+					running = false;
+				}
+			}
+		}).start();
+	}
+
+	public void stop() {
+		running = false;
+		if (listener.isSubscribed()) listener.unsubscribe();
+	}
+
+	/** Number of updates received from other pods */
+	public long getReceivedCount() {
+		return received.sum();
+	}
+
+	private class Listener extends JedisPubSub {
+		@Override
+		public void onMessage(String channel, String message) {
+			try {
+				int start = 1 + podId.length();
+				int separator = message.indexOf(' ', start);
+				if ((separator < 0) || message.startsWith(podId, 1)) return; //ours, or not something we know about
+
+				String symbol = message.substring(start, separator);
+				Quote quote = QuoteDeserializer.fromJson(message.substring(separator + 1));
+
+				if (message.charAt(0) == UPDATE) {
+					Quote existing = cache.getAnyAge(symbol);
+					if ((existing != null) && (existing.getTime() > quote.getTime())) return; //we already have something newer
+					cache.put(symbol, quote);
+					QuoteFeed quoteFeed = feed;
+					if (quoteFeed != null) quoteFeed.publish(symbol, quote);
+				} else if (message.charAt(0) == BACKUP) {
+					cache.putBackup(symbol, quote);
+				}
+				received.increment();
+			} catch (Throwable t) {
+				logger.warning("Unable to process quote update: "+t.getClass().getName()+": "+t.getMessage());
+			}
+		}
+	}
+}
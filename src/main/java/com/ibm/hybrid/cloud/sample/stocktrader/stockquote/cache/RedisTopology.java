@@ -0,0 +1,114 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.net.URI;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+//Jedis (Java for Redis)
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.util.JedisURIHelper;
+import redis.clients.jedis.util.Pool;
+
+/** Where our Redis connections come from, for each of the Redis deployments we support: a single primary (optionally
+  * with read replicas), a primary and replicas found via Sentinel, or a Redis Cluster.  Writes (and anything else that
+  * needs to see the latest data, such as the refresh locks) get a connection to the primary that owns the key; reads of
+  * cached quotes can instead get one to a replica, to spread the load.  Replication is asynchronous, so a replica can
+  * briefly be behind its primary.  Connections are closed by the caller, returning them to their pool. */
+public abstract class RedisTopology implements AutoCloseable {
+	public enum Type { STANDALONE, SENTINEL, CLUSTER }
+
+	/** A connection to the primary that owns the specified key */
+	public abstract Jedis getPrimary(String key);
+
+	/** A connection for reading the specified key, to a replica if there are any, otherwise to the primary */
+	public abstract Jedis getReplica(String key);
+
+	public abstract boolean hasReplicas();
+
+	/** Identifies the node that owns the specified key, so batches of keys can be split up by node; keys with equal
+	  * shards can share a connection (and a pipeline) */
+	public abstract Object getShard(String key);
+
+	/** One connection source per shard, for walking every key via SCAN (which only covers the node it's sent to).
+	  * These go to replicas if there are any. */
+	public abstract List<Supplier<Jedis>> getShardReaders();
+
+	/** A new connection, outside of any pool, for something that ties it up for good (such as a pub/sub subscription) */
+	public abstract Jedis connect();
+
+	/** Whether this is a Redis Cluster, where a multi-key command only works if all of its keys are in the same slot */
+	public boolean isCluster() {
+		return false;
+	}
+
+	/** The pool of connections to the primary, or null if there isn't a single one (as in a Redis Cluster) */
+	public Pool<Jedis> getPrimaryPool() {
+		return null;
+	}
+
+	/** Have connections to the primary pool borrowed via the specified monitor, so the waits get timed */
+	public void setPoolMonitor(PoolMonitor poolMonitor) {
+	}
+
+	/** Let the topology know a Redis command failed, in case that's because it has changed (such as a slot moving to
+	  * another node in a Redis Cluster) */
+	public void recover(Throwable t) {
+	}
+
+	@Override
+	public abstract void close();
+
+	/** A single primary at the specified URI, with optional read replicas (which use the primary's credentials) */
+	public static RedisTopology standalone(URI primary, JedisPoolConfig poolConfig, List<URI> replicas) {
+		return new ReplicatedTopology(primary, poolConfig, replicas);
+	}
+
+	/** A primary and its replicas, as currently known to the specified Sentinels.  The credentials (and database) for
+	  * the primary and replicas are taken from redisURI, whose host and port are the first Sentinel's. */
+	public static RedisTopology sentinel(URI redisURI, List<URI> otherSentinels, String masterName, String sentinelPassword, JedisPoolConfig poolConfig) {
+		return new ReplicatedTopology(redisURI, otherSentinels, masterName, sentinelPassword, poolConfig);
+	}
+
+	/** A Redis Cluster, discovered via the specified node plus any others (in case that one's down).  The credentials
+	  * for all of the nodes are taken from the first node's URI.  The pool settings apply per node. */
+	public static RedisTopology cluster(URI redisURI, List<URI> otherNodes, JedisPoolConfig poolConfig) {
+		return new ClusterTopology(redisURI, otherNodes, poolConfig);
+	}
+
+	/** Connection settings (credentials, database and TLS) taken from a redis:// or rediss:// URI */
+	static DefaultJedisClientConfig.Builder clientConfig(URI uri) {
+		return DefaultJedisClientConfig.builder()
+			.user(JedisURIHelper.getUser(uri))
+			.password(JedisURIHelper.getPassword(uri))
+			.database(JedisURIHelper.getDBIndex(uri))
+			.ssl(JedisURIHelper.isRedisSSLScheme(uri));
+	}
+
+	static Set<HostAndPort> hostsAndPorts(URI first, List<URI> others) {
+		LinkedHashSet<HostAndPort> nodes = new LinkedHashSet<>();
+		nodes.add(JedisURIHelper.getHostAndPort(first));
+		if (others != null) for (URI other : others) nodes.add(JedisURIHelper.getHostAndPort(other));
+		return nodes;
+	}
+}
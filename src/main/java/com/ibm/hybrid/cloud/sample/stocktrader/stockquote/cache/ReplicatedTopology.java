@@ -0,0 +1,142 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+//Logging (JSR 47)
+import java.util.logging.Logger;
+
+//Jedis (Java for Redis)
+import redis.clients.jedis.DefaultJedisClientConfig;
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisClientConfig;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisSentinelPool;
+import redis.clients.jedis.util.JedisURIHelper;
+import redis.clients.jedis.util.Pool;
+
+/** A single primary holding all of the keys, plus any number of read replicas, each with its own pool.  Reads are
+  * spread across the replicas round-robin.  With Sentinel, the primary pool follows failovers on its own, but the
+  * replicas are the ones Sentinel knew about at startup (after a failover, one of them is the new primary, which is
+  * still fine to read from). */
+class ReplicatedTopology extends RedisTopology {
+	private static Logger logger = Logger.getLogger(ReplicatedTopology.class.getName());
+
+	private static final String PRIMARY = "primary"; //the only shard there is
+
+	private final Pool<Jedis> primary;
+	private final List<JedisPool> replicas = new ArrayList<>();
+	private final JedisClientConfig clientConfig;
+	private final Supplier<HostAndPort> primaryAddress;
+	private final AtomicInteger nextReplica = new AtomicInteger();
+	private volatile PoolMonitor poolMonitor = null;
+
+	ReplicatedTopology(URI primaryURI, JedisPoolConfig poolConfig, List<URI> replicaURIs) {
+		clientConfig = clientConfig(primaryURI).build();
+		HostAndPort address = JedisURIHelper.getHostAndPort(primaryURI);
+		primary = new JedisPool(poolConfig, address, clientConfig);
+		primaryAddress = () -> address;
+
+		if (replicaURIs != null) for (URI replicaURI : replicaURIs) { //same credentials as the primary
+			replicas.add(new JedisPool(poolConfig, JedisURIHelper.getHostAndPort(replicaURI), clientConfig));
+		}
+		logger.info("Using the Redis primary at "+address+" with "+replicas.size()+" read replicas");
+	}
+
+	ReplicatedTopology(URI redisURI, List<URI> otherSentinels, String masterName, String sentinelPassword, JedisPoolConfig poolConfig) {
+		clientConfig = clientConfig(redisURI).build();
+		DefaultJedisClientConfig.Builder sentinelConfig = DefaultJedisClientConfig.builder().ssl(clientConfig.isSsl());
+		if ((sentinelPassword != null) && !sentinelPassword.isEmpty()) sentinelConfig.password(sentinelPassword);
+
+		JedisSentinelPool sentinelPool = new JedisSentinelPool(masterName, hostsAndPorts(redisURI, otherSentinels), poolConfig, clientConfig, sentinelConfig.build());
+		primary = sentinelPool;
+		primaryAddress = sentinelPool::getCurrentHostMaster;
+
+		for (HostAndPort sentinel : hostsAndPorts(redisURI, otherSentinels)) {
+			try (Jedis jedis = new Jedis(sentinel, sentinelConfig.build())) {
+				for (Map<String, String> replica : jedis.sentinelReplicas(masterName)) {
+					String flags = replica.getOrDefault("flags", "");
+					if (flags.contains("down") || flags.contains("disconnected")) continue; //s_down, o_down or not connected to its primary
+					HostAndPort address = new HostAndPort(replica.get("ip"), Integer.parseInt(replica.get("port")));
+					replicas.add(new JedisPool(poolConfig, address, clientConfig));
+				}
+				break; //one Sentinel's view is enough
+			} catch (Throwable t) {
+				logger.warning("Unable to get the replicas of "+masterName+" from the Sentinel at "+sentinel+": "+t.getClass().getName()+": "+t.getMessage());
+			}
+		}
+		logger.info("Using the Redis primary for "+masterName+" at "+primaryAddress.get()+" with "+replicas.size()+" read replicas, via Sentinel");
+	}
+
+	@Override
+	public Jedis getPrimary(String key) {
+		PoolMonitor monitor = poolMonitor;
+		return (monitor != null) ? monitor.getResource() : primary.getResource();
+	}
+
+	@Override
+	public Jedis getReplica(String key) {
+		if (replicas.isEmpty()) return getPrimary(key);
+		int index = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+		return replicas.get(index).getResource();
+	}
+
+	@Override
+	public boolean hasReplicas() {
+		return !replicas.isEmpty();
+	}
+
+	@Override
+	public Object getShard(String key) {
+		return PRIMARY;
+	}
+
+	@Override
+	public List<Supplier<Jedis>> getShardReaders() {
+		return Collections.singletonList(() -> getReplica(null));
+	}
+
+	@Override
+	public Jedis connect() {
+		return new Jedis(primaryAddress.get(), clientConfig);
+	}
+
+	@Override
+	public Pool<Jedis> getPrimaryPool() {
+		return primary;
+	}
+
+	@Override
+	public void setPoolMonitor(PoolMonitor poolMonitor) {
+		this.poolMonitor = poolMonitor;
+	}
+
+	@Override
+	public void close() {
+		primary.close();
+		for (JedisPool replica : replicas) replica.close();
+	}
+}
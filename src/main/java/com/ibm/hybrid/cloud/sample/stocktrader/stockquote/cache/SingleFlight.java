@@ -0,0 +1,103 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/** Makes sure there's only ever one upstream call per symbol in flight within this pod.  The first caller for a
+  * symbol (the leader) runs the call; anyone else asking for the same symbol while that's happening just waits
+  * for the leader's result, rather than piling another call onto our metered quote provider. */
+public class SingleFlight {
+	private final ConcurrentHashMap<String, CompletableFuture<Quote>> inFlight = new ConcurrentHashMap<>();
+	private final LongAdder leaders = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+
+	public Quote execute(String symbol, Callable<Quote> call) throws Exception {
+		CompletableFuture<Quote> future = new CompletableFuture<>();
+		CompletableFuture<Quote> existing = inFlight.putIfAbsent(symbol, future);
+		if (existing != null) { //someone else is already getting this one, so share their result
+			coalesced.increment();
+			try {
+				return existing.join();
+			} catch (CompletionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof Exception) throw (Exception) cause;
+				if (cause instanceof Error) throw (Error) cause;
+				throw e;
+			}
+		}
+
+		leaders.increment();
+		try {
+			Quote quote = call.call();
+			future.complete(quote);
+			return quote;
+		} catch (Throwable t) {
+			future.completeExceptionally(t);
+			throw t;
+		} finally {
+			inFlight.remove(symbol, future);
+		}
+	}
+
+	/** Same as execute, but for a call that doesn't block: nobody waits on a thread for the leader's result, and the
+	  * symbol stays in flight until the stage returned by the call completes */
+	public CompletionStage<Quote> executeAsync(String symbol, Supplier<CompletionStage<Quote>> call) {
+		CompletableFuture<Quote> future = new CompletableFuture<>();
+		CompletableFuture<Quote> existing = inFlight.putIfAbsent(symbol, future);
+		if (existing != null) { //someone else is already getting this one, so share their result
+			coalesced.increment();
+			return existing;
+		}
+
+		leaders.increment();
+		try {
+			call.get().whenComplete((quote, t) -> {
+				inFlight.remove(symbol, future);
+				if (t != null) future.completeExceptionally(t);
+				else future.complete(quote);
+			});
+		} catch (Throwable t) { //the call failed before it even got going
+			inFlight.remove(symbol, future);
+			future.completeExceptionally(t);
+		}
+		return future;
+	}
+
+	/** Number of upstream calls in flight right now */
+	public int getInFlightCount() {
+		return inFlight.size();
+	}
+
+	/** Number of upstream calls actually made */
+	public long getLeaderCount() {
+		return leaders.sum();
+	}
+
+	/** Number of callers that waited on someone else's upstream call instead of making their own */
+	public long getCoalescedCount() {
+		return coalesced.sum();
+	}
+}
@@ -0,0 +1,95 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+//Logging (JSR 47)
+import java.util.logging.Logger;
+
+/** Whether a quote provider is up, judging by how our recent calls to it went.  After a run of consecutive failures
+  * it's considered down, and calls to it are skipped (rather than each paying its timeout) until the retry interval
+  * has passed.  Then a single trial call is let through: if that works, the provider is up again; if not, it stays
+  * down for another interval. */
+public class UpstreamHealth {
+	private static Logger logger = Logger.getLogger(UpstreamHealth.class.getName());
+
+	private final String name;
+	private final int failureThreshold;
+	private final long retryInterval;
+	private int consecutiveFailures = 0;
+	private long downUntil = 0; //0 if the provider is up
+	private boolean trialInFlight = false;
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder skipped = new LongAdder();
+
+	/** @param failureThreshold number of consecutive failures after which the provider is considered down
+	  * @param retryInterval milliseconds to wait before trying a provider that's down again */
+	public UpstreamHealth(String name, int failureThreshold, long retryInterval) {
+		this.name = name;
+		this.failureThreshold = failureThreshold;
+		this.retryInterval = retryInterval;
+	}
+
+	/** Returns true if a call should be made to the provider.  If it's down, this is false (and the call counted as
+	  * skipped), except for a single trial call once the retry interval has passed. */
+	public synchronized boolean isAvailable() {
+		if (downUntil == 0) return true;
+		if (!trialInFlight && (System.currentTimeMillis() >= downUntil)) {
+			trialInFlight = true;
+			return true;
+		}
+		skipped.increment();
+		return false;
+	}
+
+	/** Give back the trial call granted by isAvailable(), if that's what it was, when the call ends up not being made */
+	public synchronized void cancelTrial() {
+		if (downUntil != 0) trialInFlight = false;
+	}
+
+	public synchronized void recordSuccess() {
+		if (downUntil != 0) logger.info(name+" is available again");
+		consecutiveFailures = 0;
+		downUntil = 0;
+		trialInFlight = false;
+	}
+
+	public synchronized void recordFailure() {
+		failures.increment();
+		consecutiveFailures++;
+		if ((downUntil != 0) || (consecutiveFailures >= failureThreshold)) {
+			if (downUntil == 0) logger.warning(name+" failed "+consecutiveFailures+" times in a row, so not calling it for "+retryInterval+" milliseconds");
+			downUntil = System.currentTimeMillis() + retryInterval;
+			trialInFlight = false;
+		}
+	}
+
+	public synchronized boolean isDown() {
+		return downUntil != 0;
+	}
+
+	/** Number of failed calls */
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	/** Number of calls not made because the provider was down */
+	public long getSkippedCount() {
+		return skipped.sum();
+	}
+}
@@ -0,0 +1,196 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+//Logging (JSR 47)
+import java.util.logging.Logger;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.Transaction;
+
+/** Limits how fast, and how many times a month, we call a metered quote provider.  The rate is a token bucket that
+  * holds up to burst calls and refills at callsPerSecond.  Once all but the reserve of the monthly quota has been used,
+  * only essential calls (for quotes we have no copy of at all) are let through, so everything else degrades to serving
+  * stale quotes from the caches, rather than running out and having nothing for anyone.
+  *
+  * Per pod, the limits apply to this pod alone.  Given a way to get a Redis connection, they're enforced across all
+  * pods instead, via atomic counters in Redis: one per second for the rate (so bursts aren't smoothed out), and one
+  * per calendar month (UTC) for the quota.  If Redis can't be reached, the per-pod limits are used until it's back. */
+public class UpstreamLimiter {
+	private static Logger logger = Logger.getLogger(UpstreamLimiter.class.getName());
+
+	private static final String KEY_PREFIX = "limit:"; //outside of the quote namespace, like the refresh locks
+	private static final long SECOND_KEY_TTL = 2000; //milliseconds
+	private static final long MONTH_KEY_TTL = 32L * 24 * 60 * 60 * 1000; //milliseconds; long enough to outlast any month
+
+	private final String name;
+	private final int callsPerSecond; //0 for no rate limit
+	private final int burst;
+	private final long monthlyQuota; //0 for no quota
+	private final long reserve;
+	private final Function<String, Jedis> connector; //null for per-pod limits
+	private final String keyPrefix; //hash tagged, so both counters live on the same Redis Cluster node
+
+	private double tokens;
+	private long lastRefill = System.currentTimeMillis();
+	private String month = currentMonth();
+	private long monthlyUsed = 0; //in cluster-wide mode, the count last seen in Redis
+	private final LongAdder allowed = new LongAdder();
+	private final LongAdder denied = new LongAdder();
+
+	/** @param callsPerSecond max sustained rate of calls, or 0 for no limit
+	  * @param burst max calls in a burst (per pod), after a quiet spell
+	  * @param monthlyQuota max calls per calendar month, or 0 for no limit
+	  * @param reserve number of calls at the end of the monthly quota kept for essential calls
+	  * @param connector returns a connection to the Redis primary holding the specified key, or null for per-pod limits */
+	public UpstreamLimiter(String name, int callsPerSecond, int burst, long monthlyQuota, long reserve, Function<String, Jedis> connector) {
+		this.name = name;
+		this.callsPerSecond = callsPerSecond;
+		this.burst = Math.max(burst, 1);
+		this.monthlyQuota = monthlyQuota;
+		this.reserve = reserve;
+		this.connector = connector;
+		this.keyPrefix = KEY_PREFIX + "{" + name + "}:";
+		this.tokens = this.burst;
+	}
+
+	/** Returns true (and counts the call) if a call can be made now.  An essential call is one with no stale quote to
+	  * fall back on, so it may use the reserve at the end of the monthly quota. */
+	public boolean tryAcquire(boolean essential) {
+		boolean ok;
+		if (connector != null) try {
+			ok = acquireClusterWide(essential);
+		} catch (Throwable t) {
+			logger.warning("Unable to check the cluster-wide limits for "+name+", so using the per-pod limits: "+t.getClass().getName()+": "+t.getMessage());
+			ok = acquireLocal(essential);
+		} else {
+			ok = acquireLocal(essential);
+		}
+
+		if (ok) allowed.increment();
+		else denied.increment();
+		return ok;
+	}
+
+	private synchronized boolean acquireLocal(boolean essential) {
+		long now = System.currentTimeMillis();
+		if (callsPerSecond > 0) {
+			tokens = Math.min(burst, tokens + (now - lastRefill) * callsPerSecond / 1000.0);
+			lastRefill = now;
+			if (tokens < 1) return false;
+		}
+
+		String current = currentMonth();
+		if (!current.equals(month)) {
+			month = current;
+			monthlyUsed = 0;
+		}
+		if ((monthlyQuota > 0) && (monthlyUsed >= monthlyLimit(essential))) return false;
+
+		if (callsPerSecond > 0) tokens--;
+		monthlyUsed++;
+		return true;
+	}
+
+	private boolean acquireClusterWide(boolean essential) {
+		long now = System.currentTimeMillis();
+		String secondKey = null;
+		if (callsPerSecond > 0) {
+			secondKey = keyPrefix + (now / 1000);
+			try (Jedis jedis = connector.apply(secondKey)) {
+				long count = increment(jedis, secondKey, SECOND_KEY_TTL);
+				synchronized (this) {
+					tokens = Math.max(callsPerSecond - count, 0);
+				}
+				if (count > callsPerSecond) return false;
+			}
+		}
+
+		if (monthlyQuota > 0) {
+			String current = currentMonth();
+			String monthKey = keyPrefix + current;
+			try (Jedis jedis = connector.apply(monthKey)) {
+				long used = increment(jedis, monthKey, MONTH_KEY_TTL);
+				if (used > monthlyLimit(essential)) {
+					used = jedis.decr(monthKey); //this call isn't being made, so don't count it
+					if (secondKey != null) jedis.decr(secondKey); //against the rate either (the keys share a hash tag, so a node)
+					setMonthlyUsed(current, used);
+					return false;
+				}
+				setMonthlyUsed(current, used);
+			}
+		}
+		return true;
+	}
+
+	/** Increment a counter in Redis and (re)set its expiry in the same transaction, so the counter can't be left
+	  * without one if the connection drops in between */
+	private static long increment(Jedis jedis, String key, long expiry) {
+		Transaction transaction = jedis.multi();
+		Response<Long> count = transaction.incr(key);
+		transaction.pexpire(key, expiry);
+		transaction.exec();
+		return count.get();
+	}
+
+	private long monthlyLimit(boolean essential) {
+		return essential ? monthlyQuota : monthlyQuota - reserve;
+	}
+
+	private synchronized void setMonthlyUsed(String current, long used) {
+		month = current;
+		monthlyUsed = used;
+	}
+
+	private static String currentMonth() {
+		return YearMonth.now(ZoneOffset.UTC).toString();
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/** Number of calls that could be made right now without exceeding the rate limit (-1 if there isn't one) */
+	public synchronized long getRemaining() {
+		if (callsPerSecond <= 0) return -1;
+		if (connector != null) return (long) tokens; //as of the last call
+		return (long) Math.min(burst, tokens + (System.currentTimeMillis() - lastRefill) * callsPerSecond / 1000.0);
+	}
+
+	/** Number of calls left in this month's quota, including the reserve (-1 if there isn't one) */
+	public synchronized long getMonthlyRemaining() {
+		if (monthlyQuota <= 0) return -1;
+		if (!month.equals(currentMonth())) return monthlyQuota;
+		return Math.max(monthlyQuota - monthlyUsed, 0);
+	}
+
+	/** Number of calls let through */
+	public long getAllowedCount() {
+		return allowed.sum();
+	}
+
+	/** Number of calls not made because they'd have gone over a limit */
+	public long getDeniedCount() {
+		return denied.sum();
+	}
+}
@@ -0,0 +1,25 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache;
+
+/** Thrown instead of calling a quote provider that's known to be down, or about a symbol that a provider recently
+  * said it doesn't know.  This happens on every such request, so there's no stack trace. */
+public class UpstreamSkippedException extends RuntimeException {
+	public UpstreamSkippedException(String message) {
+		super(message, null, false, false);
+	}
+}
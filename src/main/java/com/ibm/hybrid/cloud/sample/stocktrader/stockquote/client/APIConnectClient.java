@@ -17,6 +17,7 @@
 package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.client;
 
 import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.QuoteJsonbResolver;
 
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
@@ -26,14 +27,20 @@ import jakarta.ws.rs.GET;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.QueryParam;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
 
 import org.eclipse.microprofile.rest.client.annotation.RegisterClientHeaders;
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 @ApplicationPath("/")
 @Path("/")
 @ApplicationScoped
 @RegisterRestClient
+@RegisterProvider(QuoteJsonbResolver.class) //so responses are read with our reflection-free Quote deserializer
 @RegisterClientHeaders //To enable JWT propagation
 /** mpRestClient "remote" interface for the API Connect facade for the IEX stock quote service */
 public interface APIConnectClient {
@@ -42,4 +49,19 @@ public interface APIConnectClient {
 	@Produces("application/json")
 	@WithSpan(kind = SpanKind.CLIENT, value="APIConnectClient.getStockQuoteViaAPIConnect")
 	public Quote getStockQuoteViaAPIConnect(@PathParam("symbol") String symbol);
+
+	/** Same as above, but doesn't block the caller, so several symbols can be fetched concurrently */
+	@GET
+	@Path("/{symbol}")
+	@Produces("application/json")
+	@WithSpan(kind = SpanKind.CLIENT, value="APIConnectClient.getStockQuoteViaAPIConnectAsync")
+	public CompletionStage<Quote> getStockQuoteViaAPIConnectAsync(@PathParam("symbol") String symbol);
+
+	/** Several quotes in one call, keyed by symbol, each under "quote" (as asked for by types=quote).  Needs the API
+	  * Connect API to expose IEX's batch operation, which leaves out any symbols it doesn't know. */
+	@GET
+	@Path("/market/batch")
+	@Produces("application/json")
+	@WithSpan(kind = SpanKind.CLIENT, value="APIConnectClient.getStockQuotesViaAPIConnectAsync")
+	public CompletionStage<Map<String, Map<String, Quote>>> getStockQuotesViaAPIConnectAsync(@QueryParam("symbols") String symbols, @QueryParam("types") String types);
 }
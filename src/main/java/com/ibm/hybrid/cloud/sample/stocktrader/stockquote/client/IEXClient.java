@@ -17,6 +17,7 @@
 package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.client;
 
 import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.QuoteJsonbResolver;
 
 import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.instrumentation.annotations.WithSpan;
@@ -28,12 +29,17 @@ import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.QueryParam;
 
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 @ApplicationPath("/")
 @Path("/")
 @ApplicationScoped
 @RegisterRestClient
+@RegisterProvider(QuoteJsonbResolver.class) //so responses are read with our reflection-free Quote deserializer
 /** mpRestClient "remote" interface for the IEX stock quote service */
 public interface IEXClient {
 	@GET
@@ -41,4 +47,19 @@ public interface IEXClient {
 	@Produces("application/json")
 	@WithSpan(kind = SpanKind.CLIENT, value="IEXClient.getStockQuoteViaIEX")
 	public Quote getStockQuoteViaIEX(@PathParam("symbol") String symbol, @QueryParam("token") String token);
+
+	/** Same as above, but doesn't block the caller */
+	@GET
+	@Path("/{symbol}/quote")
+	@Produces("application/json")
+	@WithSpan(kind = SpanKind.CLIENT, value="IEXClient.getStockQuoteViaIEXAsync")
+	public CompletionStage<Quote> getStockQuoteViaIEXAsync(@PathParam("symbol") String symbol, @QueryParam("token") String token);
+
+	/** Several quotes in one call, keyed by symbol, each under "quote" (as asked for by types=quote).  Symbols IEX
+	  * doesn't know are left out. */
+	@GET
+	@Path("/market/batch")
+	@Produces("application/json")
+	@WithSpan(kind = SpanKind.CLIENT, value="IEXClient.getStockQuotesViaIEXAsync")
+	public CompletionStage<Map<String, Map<String, Quote>>> getStockQuotesViaIEXAsync(@QueryParam("symbols") String symbols, @QueryParam("types") String types, @QueryParam("token") String token);
 }
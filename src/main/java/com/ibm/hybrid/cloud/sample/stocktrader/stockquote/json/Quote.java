@@ -16,13 +16,25 @@
 
 package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json;
 
+import jakarta.json.bind.annotation.JsonbTransient;
+
 import java.io.Serializable;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Objects;
 
-/** JSON-B POJO class representing a Quote JSON object */
+/** JSON-B POJO class representing a Quote JSON object.  The trading date is kept as a count of days since
+  * 1970-01-01 rather than as a String, and only turned back into yyyy-MM-dd (via java.time, cached per day) when
+  * someone asks for it, so nothing here is shared mutable state the way a SimpleDateFormat would be. */
 public class Quote implements Serializable {
+    public static final int NO_DATE = Integer.MIN_VALUE; //marker for the date not being set
+
+    private static final DayText[] dayTexts = new DayText[64]; //recently formatted dates, by epochDay & 63
+
     private String symbol;
     private double price;
-    private String date;
+    private int epochDay = NO_DATE;
+    private String otherDate; //only set for a date that isn't yyyy-MM-dd, so we can hand back exactly what we got
     private long time = 0; //marker for time of day not being set
 
 
@@ -46,6 +58,13 @@ public class Quote implements Serializable {
         setTime(initialTime);
     }
 
+    public Quote(String initialSymbol, double initialPrice, int initialEpochDay, long initialTime) {
+        setSymbol(initialSymbol);
+        setPrice(initialPrice);
+        setEpochDay(initialEpochDay);
+        setTime(initialTime);
+    }
+
     public String getSymbol() {
         return symbol;
     }
@@ -63,11 +82,24 @@ public class Quote implements Serializable {
     }
 
     public String getDate() {
-        return date;
+        return (epochDay == NO_DATE) ? otherDate : formatDay(epochDay);
     }
 
     public void setDate(String newDate) {
-        date = newDate;
+        epochDay = parseEpochDay(newDate);
+        otherDate = (epochDay == NO_DATE) ? newDate : null;
+    }
+
+    /** Days since 1970-01-01, or NO_DATE if there's no date (or it isn't yyyy-MM-dd) */
+    @JsonbTransient
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    @JsonbTransient
+    public void setEpochDay(int newEpochDay) {
+        epochDay = newEpochDay;
+        otherDate = null;
     }
 
     public long getTime() {
@@ -78,13 +110,78 @@ public class Quote implements Serializable {
         time = newTime;
     }
 
+    /** An immutable copy of this quote, as held by the cache layers */
+    public QuoteValue toValue() {
+        return new QuoteValue(this);
+    }
+
+    /** Whether the other quote has a different price (or is for a different symbol or day), ignoring when each was gotten */
+    public boolean priceChanged(Quote other) {
+        return (other == null) || (Double.compare(price, other.price) != 0) || (epochDay != other.epochDay)
+            || !Objects.equals(otherDate, other.otherDate) || !Objects.equals(symbol, other.symbol);
+    }
+
     public boolean equals(Object obj) {
-        boolean isEqual = false;
-        if ((obj != null) && (obj instanceof Quote)) isEqual = toString().equals(obj.toString());
-        return isEqual;
-   }
+        if (obj == this) return true;
+        if (!(obj instanceof Quote)) return false;
+        Quote other = (Quote) obj;
+        return (time == other.time) && !priceChanged(other);
+    }
+
+    public int hashCode() {
+        int hash = Objects.hashCode(symbol);
+        hash = 31 * hash + Double.hashCode(price);
+        hash = 31 * hash + epochDay;
+        hash = 31 * hash + Objects.hashCode(otherDate);
+        return 31 * hash + Long.hashCode(time);
+    }
 
     public String toString() {
-        return "{\"symbol\": \""+symbol+"\", \"price\": "+price+", \"date\": \""+date+"\", \"time\": "+time+"}";
+        return "{\"symbol\": \""+symbol+"\", \"price\": "+price+", \"date\": \""+getDate()+"\", \"time\": "+time+"}";
+    }
+
+    /** yyyy-MM-dd for the specified epoch day, formatted once per day rather than on every call */
+    static String formatDay(int epochDay) {
+        int slot = epochDay & (dayTexts.length - 1);
+        DayText cached = dayTexts[slot]; //immutable, so a racy read sees either a whole entry or none at all
+        if ((cached == null) || (cached.epochDay != epochDay)) {
+            cached = new DayText(epochDay, LocalDate.ofEpochDay(epochDay).toString());
+            dayTexts[slot] = cached;
+        }
+        return cached.text;
+    }
+
+    /** Reads yyyy-MM-dd straight off the characters, without the allocations of a DateTimeFormatter */
+    private static int parseEpochDay(String text) {
+        if ((text == null) || (text.length() != 10) || (text.charAt(4) != '-') || (text.charAt(7) != '-')) return NO_DATE;
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 7);
+        int day = digits(text, 8, 10);
+        if ((year < 0) || (month < 0) || (day < 0)) return NO_DATE;
+        try {
+            return (int) LocalDate.of(year, month, day).toEpochDay();
+        } catch (DateTimeException e) { //like February 30th
+            return NO_DATE;
+        }
+    }
+
+    private static int digits(String text, int start, int end) {
+        int value = 0;
+        for (int index = start; index < end; index++) {
+            char c = text.charAt(index);
+            if ((c < '0') || (c > '9')) return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static final class DayText {
+        private final int epochDay;
+        private final String text;
+
+        private DayText(int epochDay, String text) {
+            this.epochDay = epochDay;
+            this.text = text;
+        }
     }
 }
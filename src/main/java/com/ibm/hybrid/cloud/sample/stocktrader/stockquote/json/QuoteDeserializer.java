@@ -0,0 +1,97 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.json.Json;
+import jakarta.json.bind.serializer.DeserializationContext;
+import jakarta.json.bind.serializer.JsonbDeserializer;
+import jakarta.json.stream.JsonParser;
+import jakarta.json.stream.JsonParserFactory;
+import jakarta.json.stream.JsonParsingException;
+
+/** Hand-written JSON-B deserializer for Quote, so reading one in doesn't involve any reflection.  Also usable
+  * directly via fromJson(), on top of just a JSON-P streaming parser, for reading quotes cached in Redis without
+  * going through JSON-B at all.  Properties we don't know about (such as in responses from IEX) are skipped. */
+public class QuoteDeserializer implements JsonbDeserializer<Quote> {
+	public Quote deserialize(JsonParser parser, DeserializationContext context, Type type) {
+		return readObject(parser); //JSON-B has already consumed the START_OBJECT
+	}
+
+	public static Quote fromJson(String json) {
+		try (JsonParser parser = ParserFactoryHolder.FACTORY.createParser(new StringReader(json))) {
+			return read(parser);
+		}
+	}
+
+	public static Quote fromJson(byte[] json) {
+		try (JsonParser parser = ParserFactoryHolder.FACTORY.createParser(new ByteArrayInputStream(json), StandardCharsets.UTF_8)) {
+			return read(parser);
+		}
+	}
+
+	private static Quote read(JsonParser parser) {
+		if (!parser.hasNext() || (parser.next() != JsonParser.Event.START_OBJECT)) {
+			throw new JsonParsingException("Expected a JSON object for a quote", parser.getLocation());
+		}
+		return readObject(parser);
+	}
+
+	private static Quote readObject(JsonParser parser) {
+		Quote quote = new Quote();
+		while (parser.hasNext()) {
+			JsonParser.Event event = parser.next();
+			if (event == JsonParser.Event.END_OBJECT) return quote;
+			if (event != JsonParser.Event.KEY_NAME) continue;
+
+			String key = parser.getString();
+			event = parser.next();
+			switch (key) {
+				case "symbol":
+					if (event == JsonParser.Event.VALUE_STRING) quote.setSymbol(parser.getString());
+					break;
+				case "price":
+					if (isNumber(event)) quote.setPrice(Double.parseDouble(parser.getString()));
+					break;
+				case "date":
+					if (event == JsonParser.Event.VALUE_STRING) quote.setDate(parser.getString());
+					break;
+				case "time":
+					if ((event == JsonParser.Event.VALUE_NUMBER) && parser.isIntegralNumber()) quote.setTime(parser.getLong());
+					else if (isNumber(event)) quote.setTime((long) Double.parseDouble(parser.getString()));
+					break;
+				default: //something we don't need, so skip over it (and everything in it)
+					if (event == JsonParser.Event.START_OBJECT) parser.skipObject();
+					else if (event == JsonParser.Event.START_ARRAY) parser.skipArray();
+			}
+		}
+		throw new JsonParsingException("Unexpected end of quote JSON", parser.getLocation());
+	}
+
+	private static boolean isNumber(JsonParser.Event event) {
+		return (event == JsonParser.Event.VALUE_NUMBER) || (event == JsonParser.Event.VALUE_STRING);
+	}
+
+	/** Looking up the JSON-P provider is expensive, so only do it once */
+	private static class ParserFactoryHolder {
+		private static final JsonParserFactory FACTORY = Json.createParserFactory(null);
+	}
+}
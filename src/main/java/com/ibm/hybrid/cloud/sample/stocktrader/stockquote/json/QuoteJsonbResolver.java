@@ -0,0 +1,59 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.json.bind.JsonbConfig;
+import jakarta.ws.rs.ext.ContextResolver;
+import jakarta.ws.rs.ext.Provider;
+
+/** Supplies JAX-RS (and the mpRestClient interfaces that register it) with a single, shared Jsonb that uses our
+  * hand-written Quote serializer and deserializer, rather than the runtime building its own on every request.
+  * Jsonb instances are thread-safe, and hold onto a fair bit, so there's just the one, closed at shutdown. */
+@Provider
+public class QuoteJsonbResolver implements ContextResolver<Jsonb> {
+	private static volatile Jsonb jsonb = null;
+
+	public Jsonb getContext(Class<?> type) {
+		return getJsonb();
+	}
+
+	public static Jsonb getJsonb() {
+		Jsonb current = jsonb;
+		if (current == null) synchronized (QuoteJsonbResolver.class) {
+			if (jsonb == null) {
+				JsonbConfig config = new JsonbConfig()
+					.withSerializers(new QuoteSerializer())
+					.withDeserializers(new QuoteDeserializer());
+				jsonb = JsonbBuilder.create(config);
+			}
+			current = jsonb;
+		}
+		return current;
+	}
+
+	public static synchronized void close() {
+		if (jsonb != null) try {
+			jsonb.close();
+		} catch (Exception e) {
+			//nothing more we can do about it while shutting down
+		} finally {
+			jsonb = null;
+		}
+	}
+}
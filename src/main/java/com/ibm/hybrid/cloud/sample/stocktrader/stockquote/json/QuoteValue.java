@@ -0,0 +1,85 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json;
+
+import java.util.Objects;
+
+/** An immutable copy of a Quote, for the cache layers to hold onto: whoever gets a quote from a cache gets a Quote of
+  * their own (via toQuote), so nothing a caller does to it (like moving its time forward) can change what's cached,
+  * and the copy can be shared between threads without any locking.  The date is kept as an epoch day, as in Quote. */
+public final class QuoteValue {
+	private final String symbol;
+	private final double price;
+	private final int epochDay;
+	private final String otherDate; //only set for a date that isn't yyyy-MM-dd
+	private final long time;
+
+	QuoteValue(Quote quote) {
+		symbol = quote.getSymbol();
+		price = quote.getPrice();
+		epochDay = quote.getEpochDay();
+		otherDate = (epochDay == Quote.NO_DATE) ? quote.getDate() : null; //getDate() only formats the epoch day if there is one
+		time = quote.getTime();
+	}
+
+	public String getSymbol() {
+		return symbol;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+	public int getEpochDay() {
+		return epochDay;
+	}
+
+	public String getDate() {
+		return (epochDay == Quote.NO_DATE) ? otherDate : Quote.formatDay(epochDay);
+	}
+
+	public long getTime() {
+		return time;
+	}
+
+	/** A new, mutable Quote with the same fields */
+	public Quote toQuote() {
+		Quote quote = new Quote(symbol, price, epochDay, time);
+		if (otherDate != null) quote.setDate(otherDate);
+		return quote;
+	}
+
+	public boolean equals(Object obj) {
+		if (obj == this) return true;
+		if (!(obj instanceof QuoteValue)) return false;
+		QuoteValue other = (QuoteValue) obj;
+		return (time == other.time) && (epochDay == other.epochDay) && (Double.compare(price, other.price) == 0)
+			&& Objects.equals(symbol, other.symbol) && Objects.equals(otherDate, other.otherDate);
+	}
+
+	public int hashCode() { //same as Quote's, for the same fields
+		int hash = Objects.hashCode(symbol);
+		hash = 31 * hash + Double.hashCode(price);
+		hash = 31 * hash + epochDay;
+		hash = 31 * hash + Objects.hashCode(otherDate);
+		return 31 * hash + Long.hashCode(time);
+	}
+
+	public String toString() {
+		return toQuote().toString();
+	}
+}
@@ -0,0 +1,107 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.CacheWarmer;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteCache;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteSnapshot;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteStore;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.RedisTopology;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPoolConfig;
+
+public class CacheWarmerTest {
+    private static final long HOUR = 3600000;
+
+    @Test
+    public void testSnapshotRoundTrip() throws Exception {
+        Path file = Files.createTempDirectory("snapshot").resolve("quotes.snapshot");
+        QuoteSnapshot snapshot = new QuoteSnapshot(file);
+        assertTrue(snapshot.read().isEmpty()); //nothing saved yet
+
+        LinkedHashMap<String, Quote> quotes = new LinkedHashMap<>();
+        quotes.put("ibm", new Quote("IBM", 123.45, "2025-01-02", 1735830000000L));
+        quotes.put("AAPL", new Quote("AAPL", 200.5, "2025-01-02", 1735830000001L));
+        snapshot.write(quotes);
+
+        Map<String, Quote> read = snapshot.read();
+        assertEquals(2, read.size());
+        assertEquals("IBM", read.get("ibm").getSymbol());
+        assertEquals(200.5, read.get("AAPL").getPrice(), 0);
+        assertEquals(1735830000001L, read.get("AAPL").getTime());
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3)); //as if the write had been cut short
+        assertEquals(1, snapshot.read().size());
+    }
+
+    @Test
+    public void testWarmsFromSnapshotThenRedis() throws Exception {
+        Path file = Files.createTempDirectory("snapshot").resolve("quotes.snapshot");
+        long now = System.currentTimeMillis();
+        LinkedHashMap<String, Quote> saved = new LinkedHashMap<>();
+        saved.put("IBM", new Quote("IBM", 1.0, "2025-01-02", now - 1000));
+        saved.put("OLD", new Quote("OLD", 2.0, "2025-01-02", now - 2 * HOUR));
+        new QuoteSnapshot(file).write(saved);
+
+        QuoteStore store = new QuoteStore("quote:", QuoteStore.Format.BINARY);
+        try (RedisStandIn redis = new RedisStandIn();
+             RedisTopology topology = RedisTopology.standalone(redis.getURI(), new JedisPoolConfig(), null)) {
+            try (Jedis jedis = new Jedis(redis.getURI())) {
+                store.set(jedis, "IBM", new Quote("IBM", 3.0, "2025-01-02", now)); //newer than the snapshot's
+                store.set(jedis, "AAPL", new Quote("AAPL", 4.0, "2025-01-02", now));
+            }
+
+            QuoteCache cache = new QuoteCache(100, HOUR);
+            CacheWarmer warmer = new CacheWarmer(cache, new QuoteSnapshot(file), 100, 60000);
+            assertFalse(warmer.isReady());
+            warmer.warm(topology, store);
+            assertTrue(warmer.isReady());
+
+            assertEquals(3.0, cache.get("IBM").getPrice(), 0);
+            assertEquals(4.0, cache.get("AAPL").getPrice(), 0);
+            assertNull(cache.get("OLD")); //too old to be fresh...
+            assertNotNull(cache.getAnyAge("OLD")); //...but still there as a backup
+            assertEquals(2, warmer.getSnapshotCount());
+            assertEquals(2, warmer.getRedisCount());
+        }
+    }
+
+    @Test
+    public void testReadyAfterTimeout() throws Exception {
+        CacheWarmer warmer = new CacheWarmer(new QuoteCache(100, HOUR), null, 100, 0);
+        Thread.sleep(5);
+        assertTrue(warmer.isReady()); //still not done, but we've stopped waiting for it
+        assertFalse(warmer.isDone());
+    }
+}
@@ -0,0 +1,43 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.NegativeCache;
+
+import org.junit.Test;
+
+public class NegativeCacheTest {
+    @Test
+    public void testExpiresAndIsBounded() throws InterruptedException {
+        NegativeCache cache = new NegativeCache(50, 2);
+        cache.put("XYZ1");
+        cache.put("XYZ2");
+        cache.put("XYZ3"); //full, so not remembered
+        assertTrue(cache.contains("XYZ1"));
+        assertFalse(cache.contains("XYZ3"));
+
+        Thread.sleep(60);
+        cache.put("XYZ3"); //clears out the expired ones to make room
+        assertEquals(1, cache.size());
+        assertTrue(cache.contains("XYZ3"));
+        assertFalse(cache.contains("XYZ1"));
+    }
+}
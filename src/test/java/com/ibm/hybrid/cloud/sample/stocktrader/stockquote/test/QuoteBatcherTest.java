@@ -0,0 +1,88 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteBatcher;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class QuoteBatcherTest {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<List<String>> calls = new ArrayList<>();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testSymbolsWithinTheWindowShareOneCall() {
+        QuoteBatcher batcher = new QuoteBatcher(this::upstream, scheduler, 20, 100);
+        CompletableFuture<Quote> ibm = batcher.get("IBM").toCompletableFuture();
+        CompletableFuture<Quote> aapl = batcher.get("AAPL").toCompletableFuture();
+        CompletableFuture<Quote> again = batcher.get("IBM").toCompletableFuture();
+        CompletableFuture<Quote> bogus = batcher.get("BOGUS").toCompletableFuture();
+
+        assertEquals("IBM", ibm.join().getSymbol());
+        assertEquals("AAPL", aapl.join().getSymbol());
+        assertEquals("IBM", again.join().getSymbol());
+        assertNull(bogus.join()); //left out of the response, like IEX does for symbols it doesn't know
+        assertEquals(1, calls.size());
+        assertEquals(3, calls.get(0).size());
+    }
+
+    @Test
+    public void testFullBatchIsSentRightAway() {
+        QuoteBatcher batcher = new QuoteBatcher(this::upstream, scheduler, 60000, 2);
+        CompletableFuture<Quote> ibm = batcher.get("IBM").toCompletableFuture();
+        batcher.get("AAPL");
+        assertTrue(ibm.isDone());
+        assertEquals(1, batcher.getBatchCount());
+        assertEquals(2, batcher.getSymbolCount());
+    }
+
+    @Test(expected = CompletionException.class)
+    public void testFailureReachesEveryCaller() {
+        QuoteBatcher batcher = new QuoteBatcher(symbols -> CompletableFuture.failedFuture(new IllegalStateException("down")), scheduler, 1, 100);
+        batcher.get("IBM").toCompletableFuture().join();
+    }
+
+    private synchronized CompletionStage<Map<String, Quote>> upstream(List<String> symbols) {
+        calls.add(symbols);
+        Map<String, Quote> quotes = new HashMap<>();
+        for (String symbol : symbols) {
+            if (!symbol.equals("BOGUS")) quotes.put(symbol, new Quote(symbol, 155.23, "2016-06-27", System.currentTimeMillis()));
+        }
+        return CompletableFuture.completedFuture(quotes);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteCache;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import org.junit.Test;
+
+public class QuoteCacheTest {
+    private static final long HOUR = 3600000;
+
+    @Test
+    public void testFreshQuoteIsServed() {
+        QuoteCache cache = new QuoteCache(100, HOUR);
+        Quote quote = new Quote("IBM", 155.23, "2016-06-27", System.currentTimeMillis());
+        cache.put("IBM", quote);
+
+        assertEquals(quote, cache.get("IBM")); //a copy, now that the cache holds immutable values
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testExpiredQuoteIsOnlyABackup() {
+        QuoteCache cache = new QuoteCache(100, HOUR);
+        Quote quote = new Quote("IBM", 155.23, "2016-06-27", System.currentTimeMillis() - 2*HOUR);
+        cache.put("IBM", quote);
+
+        assertNull(cache.get("IBM"));
+        assertEquals(quote, cache.getAnyAge("IBM"));
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        QuoteCache cache = new QuoteCache(32, HOUR);
+        for (int index = 0; index < 1000; index++) {
+            cache.put("SYM"+index, new Quote("SYM"+index, index, "2016-06-27", System.currentTimeMillis()));
+        }
+
+        assertTrue("Cache grew to "+cache.size(), cache.size() <= 32);
+        assertEquals(1000 - cache.size(), cache.getEvictionCount());
+    }
+}
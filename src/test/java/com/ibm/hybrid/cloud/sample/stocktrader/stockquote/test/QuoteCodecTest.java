@@ -0,0 +1,50 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.BinaryQuoteCodec;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteFormatException;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import org.junit.Test;
+
+public class QuoteCodecTest {
+    private BinaryQuoteCodec codec = new BinaryQuoteCodec();
+
+    @Test
+    public void testBinaryRoundTrip() throws Exception {
+        Quote quote = new Quote("IBM", 155.23, "2016-06-27", 1467028800000L);
+        byte[] encoded = codec.encode(quote);
+
+        assertTrue("Binary form is "+encoded.length+" bytes", encoded.length < quote.toString().length() / 2);
+        assertEquals(quote.toString(), codec.decode(encoded).toString());
+    }
+
+    @Test
+    public void testNonIsoDateFallsBackToJson() {
+        Quote quote = new Quote("IBM", 155.23, "06/27/2016", 1467028800000L);
+        assertEquals('{', codec.encode(quote)[0]);
+    }
+
+    @Test(expected = QuoteFormatException.class)
+    public void testUnknownVersionIsRejected() throws Exception {
+        codec.decode(new byte[] {99, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
+    }
+}
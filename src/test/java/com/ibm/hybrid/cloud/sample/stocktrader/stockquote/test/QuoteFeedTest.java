@@ -0,0 +1,141 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteFeed;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class QuoteFeedTest {
+    @Test
+    public void testOnlyPriceChangesAreSent() {
+        QuoteFeed feed = new QuoteFeed(Runnable::run);
+        TestSink sink = new TestSink();
+        feed.subscribe(new HashSet<>(Arrays.asList("IBM")), sink);
+
+        feed.publish("IBM", quote("IBM", 155.23, 1));
+        feed.publish("IBM", quote("IBM", 155.23, 2)); //refreshed, but unchanged
+        feed.publish("IBM", quote("IBM", 156.00, 3));
+        feed.publish("AAPL", quote("AAPL", 98.76, 3)); //not subscribed
+
+        assertEquals(2, sink.sent.size());
+        assertEquals(156.00, sink.sent.get(1).getPrice(), 0);
+    }
+
+    @Test
+    public void testNewSubscriberGetsTheLatestQuote() {
+        QuoteFeed feed = new QuoteFeed(Runnable::run);
+        feed.publish("IBM", quote("IBM", 155.23, 1));
+
+        TestSink sink = new TestSink();
+        feed.subscribe(new HashSet<>(Arrays.asList("IBM", "AAPL")), sink);
+        assertEquals(1, sink.sent.size());
+        assertEquals(new HashSet<>(Arrays.asList("IBM", "AAPL")), feed.getSymbols());
+    }
+
+    @Test
+    public void testSlowSubscriberOnlyGetsTheLatest() {
+        QuoteFeed feed = new QuoteFeed(Runnable::run);
+        TestSink sink = new TestSink();
+        sink.pending = new CompletableFuture<>(); //the first send doesn't complete until we say so
+        feed.subscribe(new HashSet<>(Arrays.asList("IBM")), sink);
+
+        for (int price = 1; price <= 10; price++) feed.publish("IBM", quote("IBM", price, price));
+        assertEquals(1, sink.sent.size());
+
+        CompletableFuture<Void> first = sink.pending;
+        sink.pending = null;
+        first.complete(null);
+        assertEquals(2, sink.sent.size()); //the first and the last, with everything in between coalesced
+        assertEquals(10, sink.sent.get(1).getPrice(), 0);
+        assertEquals(8, feed.getCoalescedCount());
+    }
+
+    @Test
+    public void testConcurrentPublishersKeepTheNewest() throws Exception {
+        QuoteFeed feed = new QuoteFeed(Runnable::run);
+        ExecutorService publishers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int time = 1; time <= 1000; time++) {
+                Quote quote = quote("IBM", time, time);
+                results.add(publishers.submit(() -> feed.publish("IBM", quote)));
+            }
+            for (Future<?> result : results) result.get();
+        } finally {
+            publishers.shutdown();
+        }
+
+        TestSink sink = new TestSink();
+        feed.subscribe(new HashSet<>(Arrays.asList("IBM")), sink);
+        assertEquals(1000, sink.sent.get(0).getTime()); //older quotes published late never replaced it
+    }
+
+    @Test
+    public void testFailedSubscriberIsDropped() {
+        QuoteFeed feed = new QuoteFeed(Runnable::run);
+        TestSink sink = new TestSink();
+        sink.pending = CompletableFuture.failedFuture(new RuntimeException("client went away"));
+        feed.subscribe(new HashSet<>(Arrays.asList("IBM")), sink);
+
+        feed.publish("IBM", quote("IBM", 155.23, 1));
+        assertEquals(0, feed.getSubscriberCount());
+        assertEquals(1, feed.getDroppedCount());
+        assertTrue(sink.closed);
+        assertTrue(feed.getSymbols().isEmpty());
+    }
+
+    private static Quote quote(String symbol, double price, long time) {
+        return new Quote(symbol, price, "2025-01-02", time);
+    }
+
+    private static class TestSink implements QuoteFeed.Sink {
+        private final List<Quote> sent = new ArrayList<>();
+        private CompletableFuture<Void> pending = null; //what send returns, if not already completed
+        private boolean closed = false;
+
+        @Override
+        public CompletionStage<?> send(Quote quote) {
+            sent.add(quote);
+            return (pending != null) ? pending : CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteStore;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+
+public class QuoteStoreTest {
+    private static final long MINUTE = 60000;
+
+    @Test
+    public void testWritesCarryTheTimeToLive() throws Exception {
+        QuoteStore store = new QuoteStore("quote:", QuoteStore.Format.BINARY);
+        store.setExpiry(10 * MINUTE, MINUTE);
+        try (RedisStandIn redis = new RedisStandIn(); Jedis jedis = new Jedis(redis.getURI())) {
+            store.set(jedis, "IBM", new Quote("IBM", 123.45, "2025-01-01", System.currentTimeMillis()));
+            long remaining = jedis.pttl("quote:IBM");
+            assertTrue(remaining > 9 * MINUTE && remaining <= 10 * MINUTE);
+
+            QuoteStore.Lookup lookup = store.lookup(jedis, "IBM");
+            assertEquals("IBM", lookup.getQuote().getSymbol());
+            assertFalse(lookup.isStale());
+
+            jedis.pexpire("quote:IBM", 5 * MINUTE); //as if it had been written five minutes ago
+            assertTrue(store.lookup(jedis, "IBM").isStale());
+
+            jedis.pexpire("quote:IBM", 1);
+            Thread.sleep(5);
+            assertNull(store.lookup(jedis, "IBM")); //gone from Redis altogether
+        }
+    }
+
+    @Test
+    public void testHashWritesReplaceOtherFormatsWithTheTimeToLive() throws Exception {
+        QuoteStore binary = new QuoteStore("quote:", QuoteStore.Format.BINARY);
+        QuoteStore store = new QuoteStore("quote:", QuoteStore.Format.HASH);
+        store.setExpiry(10 * MINUTE, MINUTE);
+        try (RedisStandIn redis = new RedisStandIn(); Jedis jedis = new Jedis(redis.getURI())) {
+            binary.set(jedis, "IBM", new Quote("IBM", 1.0, "2025-01-01", System.currentTimeMillis()));
+            store.set(jedis, "IBM", new Quote("IBM", 2.0, "2025-01-02", System.currentTimeMillis()));
+            assertEquals(2.0, store.lookup(jedis, "IBM").getQuote().getPrice(), 0);
+            assertTrue(jedis.pttl("quote:IBM") > 9 * MINUTE);
+        }
+    }
+
+    @Test
+    public void testKeysWithoutTimeToLiveAreJudgedByQuoteTime() throws Exception {
+        QuoteStore legacy = new QuoteStore("quote:", QuoteStore.Format.HASH);
+        QuoteStore store = new QuoteStore("quote:", QuoteStore.Format.HASH);
+        store.setExpiry(10 * MINUTE, MINUTE);
+        try (RedisStandIn redis = new RedisStandIn(); Jedis jedis = new Jedis(redis.getURI())) {
+            long now = System.currentTimeMillis();
+            legacy.set(jedis, "OLD", new Quote("OLD", 1.0, "2025-01-01", now - 2 * MINUTE));
+            legacy.set(jedis, "NEW", new Quote("NEW", 2.0, "2025-01-01", now));
+            store.set(jedis, "TTL", new Quote("TTL", 3.0, "2025-01-01", now - 2 * MINUTE)); //written just now, whatever its time
+            assertEquals(-1, jedis.pttl("quote:OLD"));
+
+            List<QuoteStore.Lookup> lookups = store.lookupAll(jedis, Arrays.asList("OLD", "NEW", "TTL", "NONE"));
+            assertTrue(lookups.get(0).isStale());
+            assertFalse(lookups.get(1).isStale());
+            assertFalse(lookups.get(2).isStale());
+            assertNull(lookups.get(3));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.QuoteValue;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class QuoteTest {
+    @Test
+    public void testEqualityIsFieldByField() {
+        Quote quote = new Quote("IBM", 155.23, "2016-06-27", 1467028800000L);
+        Quote same = new Quote("IBM", 155.23, "2016-06-27", 1467028800000L);
+        Quote later = new Quote("IBM", 155.23, "2016-06-27", 1467028860000L);
+        assertEquals(quote, same);
+        assertEquals(quote.hashCode(), same.hashCode());
+        assertNotEquals(quote, later);
+        assertFalse(quote.priceChanged(later));
+        assertTrue(quote.priceChanged(new Quote("IBM", 155.24, "2016-06-27", 1467028800000L)));
+        assertTrue(quote.priceChanged(null));
+
+        QuoteValue value = quote.toValue();
+        Quote copy = value.toQuote();
+        copy.setTime(0); //changing the copy leaves the value alone
+        assertEquals(quote, value.toQuote());
+        assertEquals(quote.hashCode(), value.hashCode());
+        assertEquals("06/27/2016", new Quote("IBM", 155.23, "06/27/2016").toValue().toQuote().getDate());
+    }
+
+    @Test
+    public void testDateIsKeptAsEpochDay() throws Exception {
+        Quote quote = new Quote("IBM", 155.23, "2016-06-27", 1467028800000L);
+        assertEquals(16979, quote.getEpochDay());
+        assertEquals("2016-06-27", quote.getDate());
+
+        quote.setDate("2016-02-30"); //not a real day, so kept as given
+        assertEquals(Quote.NO_DATE, quote.getEpochDay());
+        assertEquals("2016-02-30", quote.getDate());
+
+        Thread[] threads = new Thread[4];
+        AtomicReference<String> wrong = new AtomicReference<>();
+        for (int index = 0; index < threads.length; index++) {
+            int offset = index;
+            threads[index] = new Thread(() -> {
+                for (int day = 0; day < 20000; day++) {
+                    int epochDay = 16000 + (day * 7 + offset) % 500;
+                    String date = new Quote("IBM", 1.0, epochDay, 0).getDate();
+                    if (!date.equals(LocalDate.ofEpochDay(epochDay).toString())) wrong.set(date);
+                }
+            });
+            threads[index].start();
+        }
+        for (Thread thread : threads) thread.join();
+        assertNull(wrong.get());
+    }
+}
@@ -0,0 +1,567 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import redis.clients.jedis.HostAndPort;
+import redis.clients.jedis.util.JedisClusterCRC16;
+
+/** Just enough of a Redis server, in-process, for the tests and benchmarks to go through Jedis and a real socket
+  * without needing a Redis install.  It speaks RESP2 and keeps everything in a map; only the commands StockQuote uses
+  * are implemented (GET, SET, MGET, DEL, INCR, DECR, HSET, HGETALL, EXPIRE, PEXPIRE, PTTL, SCAN, PUBLISH, EVAL, PING,
+  * and MULTI/EXEC), and anything else just gets an OK.  Keys expire lazily, when next touched; NX/XX on SET are ignored, and SCAN returns everything
+  * that matches in a single page.
+  *
+  * Several of them can be put together to stand in for the topologies we support: a primary with read replicas
+  * (which share its data, and refuse writes), a Redis Cluster (each primary owns a range of slots, answers CLUSTER SLOTS
+  * and redirects with MOVED, and its replicas only serve reads after READONLY), and a Sentinel that knows the primary
+  * and replicas of one master.  Each node counts the commands it gets, so tests can check where things went. */
+public class RedisStandIn implements AutoCloseable {
+    private static final byte[] CRLF = { '\r', '\n' };
+    private static final byte[] NULL_BULK = bytes("$-1\r\n");
+    private static final int SLOTS = 16384;
+    private static final List<String> WRITES = Arrays.asList("SET", "DEL", "INCR", "DECR", "EXPIRE", "PEXPIRE", "HSET", "EVAL", "EVALSHA");
+
+    private enum Role { PRIMARY, REPLICA, SENTINEL }
+
+    private final Role role;
+    private final Map<String, Object> data; //byte[] for strings, Map<String, byte[]> for hashes; shared with our replicas
+    private final Map<String, Long> expiries; //when each key with a TTL expires, in epoch milliseconds; shared likewise
+    private final RedisStandIn primary; //if we're a replica
+    private final Map<String, LongAdder> commandCounts = new ConcurrentHashMap<>();
+    private final ServerSocket serverSocket;
+    private volatile boolean running = true;
+
+    //cluster mode only
+    private int firstSlot = 0;
+    private int lastSlot = SLOTS - 1;
+    private List<RedisStandIn> cluster = null; //all of the nodes, primaries and replicas
+
+    //sentinel only
+    private String masterName = null;
+    private List<RedisStandIn> monitored = null; //the primary first, then its replicas
+
+    /** A standalone primary */
+    public RedisStandIn() throws IOException {
+        this(Role.PRIMARY, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), null);
+    }
+
+    private RedisStandIn(Role role, Map<String, Object> data, Map<String, Long> expiries, RedisStandIn primary) throws IOException {
+        this.role = role;
+        this.data = data;
+        this.expiries = expiries;
+        this.primary = primary;
+        serverSocket = new ServerSocket(0, 200, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "redis-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /** A read replica of the specified primary, which sees its writes immediately */
+    public static RedisStandIn replicaOf(RedisStandIn primary) throws IOException {
+        RedisStandIn replica = new RedisStandIn(Role.REPLICA, primary.data, primary.expiries, primary);
+        replica.firstSlot = primary.firstSlot;
+        replica.lastSlot = primary.lastSlot;
+        replica.cluster = primary.cluster;
+        return replica;
+    }
+
+    /** A Redis Cluster with the slots split evenly across the specified number of primaries, each with the specified
+      * number of replicas.  The primaries come first in the returned list. */
+    public static List<RedisStandIn> cluster(int primaries, int replicasEach) throws IOException {
+        List<RedisStandIn> nodes = Collections.synchronizedList(new ArrayList<>());
+        for (int index = 0; index < primaries; index++) {
+            RedisStandIn node = new RedisStandIn();
+            node.firstSlot = index * SLOTS / primaries;
+            node.lastSlot = (index + 1) * SLOTS / primaries - 1;
+            node.cluster = nodes;
+            nodes.add(node);
+        }
+        for (int index = 0; index < primaries; index++) {
+            for (int count = 0; count < replicasEach; count++) nodes.add(replicaOf(nodes.get(index)));
+        }
+        return nodes;
+    }
+
+    /** A Sentinel monitoring the specified primary and its replicas, under the specified master name */
+    public static RedisStandIn sentinel(String masterName, RedisStandIn primary, RedisStandIn... replicas) throws IOException {
+        RedisStandIn sentinel = new RedisStandIn(Role.SENTINEL, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), null);
+        sentinel.masterName = masterName;
+        sentinel.monitored = new ArrayList<>();
+        sentinel.monitored.add(primary);
+        sentinel.monitored.addAll(Arrays.asList(replicas));
+        return sentinel;
+    }
+
+    public URI getURI() {
+        return URI.create("redis://localhost:"+serverSocket.getLocalPort());
+    }
+
+    public HostAndPort getHostAndPort() {
+        return new HostAndPort(InetAddress.getLoopbackAddress().getHostAddress(), serverSocket.getLocalPort());
+    }
+
+    /** Forget everything, like FLUSHALL */
+    public void clear() {
+        data.clear();
+        expiries.clear();
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    /** How many times this node has been sent the specified command */
+    public long getCommandCount(String command) {
+        LongAdder count = commandCounts.get(command.toUpperCase());
+        return (count != null) ? count.sum() : 0;
+    }
+
+    public void resetCommandCounts() {
+        commandCounts.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+    }
+
+    private void accept() {
+        while (running) try {
+            Socket socket = serverSocket.accept();
+            socket.setTcpNoDelay(true);
+            Thread connection = new Thread(() -> serve(socket), "redis-stand-in-connection");
+            connection.setDaemon(true);
+            connection.start();
+        } catch (IOException e) {
+            if (running) e.printStackTrace();
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            boolean[] readOnly = { false }; //whether this connection has sent READONLY
+            List<List<byte[]>> transaction = null; //commands queued since MULTI, if one is open
+            while (running) {
+                List<byte[]> command = readCommand(in);
+                if (command == null) break;
+                String name = string(command.get(0)).toUpperCase();
+                if (name.equals("MULTI")) {
+                    transaction = new ArrayList<>();
+                    writeSimple(out, "OK");
+                } else if ((transaction != null) && name.equals("EXEC")) {
+                    writeArrayHeader(out, transaction.size());
+                    synchronized (data) { //so no other connection's transaction runs in between
+                        for (List<byte[]> queued : transaction) execute(queued, readOnly, out);
+                    }
+                    transaction = null;
+                } else if ((transaction != null) && name.equals("DISCARD")) {
+                    transaction = null;
+                    writeSimple(out, "OK");
+                } else if (transaction != null) {
+                    transaction.add(command);
+                    writeSimple(out, "QUEUED");
+                } else {
+                    execute(command, readOnly, out);
+                }
+                if (in.available() == 0) out.flush(); //answer a whole pipeline in one go
+            }
+        } catch (IOException e) {
+            //client went away
+        }
+    }
+
+    private void execute(List<byte[]> command, boolean[] readOnly, OutputStream out) throws IOException {
+        String name = string(command.get(0)).toUpperCase();
+        commandCounts.computeIfAbsent(name, key -> new LongAdder()).increment();
+
+        if (role == Role.SENTINEL) {
+            executeSentinel(name, command, out);
+            return;
+        }
+        if (name.equals("READONLY")) {
+            readOnly[0] = true;
+            writeSimple(out, "OK");
+            return;
+        }
+        if (name.equals("CLUSTER") && (cluster != null)) {
+            clusterSlots(out);
+            return;
+        }
+        if (!checkRouting(name, command, readOnly[0], out)) return;
+        for (byte[] key : keys(name, command)) expireIfDue(string(key));
+
+        switch (name) {
+            case "PING":
+                writeSimple(out, "PONG");
+                break;
+            case "GET":
+                Object value = data.get(string(command.get(1)));
+                if ((value != null) && !(value instanceof byte[])) writeError(out, "WRONGTYPE Operation against a key holding the wrong kind of value");
+                else writeBulk(out, (byte[]) value);
+                break;
+            case "SET":
+                data.put(string(command.get(1)), command.get(2));
+                setExpiry(string(command.get(1)), command);
+                writeSimple(out, "OK");
+                break;
+            case "MGET":
+                writeArrayHeader(out, command.size() - 1);
+                for (int index = 1; index < command.size(); index++) {
+                    Object element = data.get(string(command.get(index)));
+                    writeBulk(out, (element instanceof byte[]) ? (byte[]) element : null);
+                }
+                break;
+            case "DEL":
+                long deleted = 0;
+                for (int index = 1; index < command.size(); index++) {
+                    expiries.remove(string(command.get(index)));
+                    if (data.remove(string(command.get(index))) != null) deleted++;
+                }
+                writeInteger(out, deleted);
+                break;
+            case "INCR":
+            case "DECR":
+                writeInteger(out, increment(string(command.get(1)), name.equals("INCR") ? 1 : -1));
+                break;
+            case "EXPIRE":
+            case "PEXPIRE":
+                String key = string(command.get(1));
+                boolean exists = data.containsKey(key);
+                if (exists) expiries.put(key, System.currentTimeMillis() + Long.parseLong(string(command.get(2))) * (name.equals("EXPIRE") ? 1000 : 1));
+                writeInteger(out, exists ? 1 : 0);
+                break;
+            case "PTTL":
+                Long expiry = expiries.get(string(command.get(1)));
+                if (!data.containsKey(string(command.get(1)))) writeInteger(out, -2);
+                else writeInteger(out, (expiry != null) ? Math.max(expiry - System.currentTimeMillis(), 0) : -1);
+                break;
+            case "HSET":
+                hset(command, out);
+                break;
+            case "HGETALL":
+                hgetAll(string(command.get(1)), out);
+                break;
+            case "SCAN":
+                scan(command, out);
+                break;
+            case "PUBLISH":
+            case "EVAL":
+            case "EVALSHA":
+                writeInteger(out, 0); //nobody's subscribed, and no lock was ours to release
+                break;
+            default: //CLIENT SETINFO, SELECT, AUTH and the like
+                writeSimple(out, "OK");
+        }
+    }
+
+    /** A SET replaces any TTL the key had with the one given by its EX or PX option, if any */
+    private void setExpiry(String key, List<byte[]> command) {
+        expiries.remove(key);
+        for (int index = 3; index + 1 < command.size(); index++) {
+            String option = string(command.get(index)).toUpperCase();
+            if (option.equals("PX")) expiries.put(key, System.currentTimeMillis() + Long.parseLong(string(command.get(index + 1))));
+            else if (option.equals("EX")) expiries.put(key, System.currentTimeMillis() + Long.parseLong(string(command.get(index + 1))) * 1000);
+        }
+    }
+
+    private void expireIfDue(String key) {
+        Long expiry = expiries.get(key);
+        if ((expiry != null) && (System.currentTimeMillis() >= expiry) && expiries.remove(key, expiry)) data.remove(key);
+    }
+
+    private long increment(String key, long delta) {
+        Object value = data.compute(key, (ignored, count) -> bytes(Long.toString(((count instanceof byte[]) ? Long.parseLong(string((byte[]) count)) : 0) + delta)));
+        return Long.parseLong(string((byte[]) value));
+    }
+
+    /** Refuses writes on a replica, and in a cluster, redirects commands for keys this node doesn't serve */
+    private boolean checkRouting(String name, List<byte[]> command, boolean readOnly, OutputStream out) throws IOException {
+        boolean write = WRITES.contains(name);
+        if ((role == Role.REPLICA) && write) {
+            writeError(out, "READONLY You can't write against a read only replica.");
+            return false;
+        }
+        if (cluster == null) return true;
+
+        List<byte[]> keys = keys(name, command);
+        if (keys.isEmpty()) return true;
+        int slot = JedisClusterCRC16.getSlot(keys.get(0));
+        for (byte[] key : keys) {
+            if (JedisClusterCRC16.getSlot(key) != slot) {
+                writeError(out, "CROSSSLOT Keys in request don't hash to the same slot");
+                return false;
+            }
+        }
+        if ((slot < firstSlot) || (slot > lastSlot) || ((role == Role.REPLICA) && !readOnly)) {
+            HostAndPort owner = ownerOf(slot).getHostAndPort();
+            writeError(out, "MOVED "+slot+" "+owner.getHost()+":"+owner.getPort());
+            return false;
+        }
+        return true;
+    }
+
+    private static List<byte[]> keys(String name, List<byte[]> command) {
+        switch (name) {
+            case "GET":
+            case "SET":
+            case "INCR":
+            case "DECR":
+            case "EXPIRE":
+            case "PEXPIRE":
+            case "PTTL":
+            case "HSET":
+            case "HGETALL":
+                return command.subList(1, 2);
+            case "MGET":
+            case "DEL":
+                return command.subList(1, command.size());
+            case "EVAL":
+            case "EVALSHA":
+                int count = Integer.parseInt(string(command.get(2)));
+                return command.subList(3, 3 + count);
+            default:
+                return Collections.emptyList();
+        }
+    }
+
+    private RedisStandIn ownerOf(int slot) {
+        for (RedisStandIn node : cluster) {
+            if ((node.role == Role.PRIMARY) && (slot >= node.firstSlot) && (slot <= node.lastSlot)) return node;
+        }
+        throw new IllegalStateException("No node serves slot "+slot);
+    }
+
+    private void clusterSlots(OutputStream out) throws IOException {
+        ArrayList<RedisStandIn> primaries = new ArrayList<>();
+        for (RedisStandIn node : cluster) if (node.role == Role.PRIMARY) primaries.add(node);
+
+        writeArrayHeader(out, primaries.size());
+        for (RedisStandIn node : primaries) {
+            ArrayList<RedisStandIn> replicas = new ArrayList<>();
+            for (RedisStandIn other : cluster) if (other.primary == node) replicas.add(other);
+
+            writeArrayHeader(out, 3 + replicas.size());
+            writeInteger(out, node.firstSlot);
+            writeInteger(out, node.lastSlot);
+            writeNode(out, node);
+            for (RedisStandIn replica : replicas) writeNode(out, replica);
+        }
+    }
+
+    private static void writeNode(OutputStream out, RedisStandIn node) throws IOException {
+        HostAndPort address = node.getHostAndPort();
+        writeArrayHeader(out, 3);
+        writeBulk(out, bytes(address.getHost()));
+        writeInteger(out, address.getPort());
+        writeBulk(out, bytes("node"+address.getPort()));
+    }
+
+    private void executeSentinel(String name, List<byte[]> command, OutputStream out) throws IOException {
+        if (name.equals("SUBSCRIBE")) { //JedisSentinelPool listens for failovers; there won't be any
+            for (int index = 1; index < command.size(); index++) {
+                writeArrayHeader(out, 3);
+                writeBulk(out, bytes("subscribe"));
+                writeBulk(out, command.get(index));
+                writeInteger(out, index);
+            }
+            return;
+        }
+        if (name.equals("UNSUBSCRIBE")) {
+            writeArrayHeader(out, 3);
+            writeBulk(out, bytes("unsubscribe"));
+            writeBulk(out, null);
+            writeInteger(out, 0);
+            return;
+        }
+        if (!name.equals("SENTINEL") || (command.size() < 3) || !string(command.get(2)).equals(masterName)) {
+            if (name.equals("SENTINEL")) writeError(out, "ERR No such master with that name");
+            else writeSimple(out, name.equals("PING") ? "PONG" : "OK");
+            return;
+        }
+
+        String subcommand = string(command.get(1)).toLowerCase();
+        if (subcommand.equals("get-master-addr-by-name")) {
+            HostAndPort address = monitored.get(0).getHostAndPort();
+            writeArrayHeader(out, 2);
+            writeBulk(out, bytes(address.getHost()));
+            writeBulk(out, bytes(Integer.toString(address.getPort())));
+        } else if (subcommand.equals("replicas") || subcommand.equals("slaves")) {
+            writeArrayHeader(out, monitored.size() - 1);
+            for (RedisStandIn replica : monitored.subList(1, monitored.size())) {
+                HostAndPort address = replica.getHostAndPort();
+                String[] fields = { "name", address.toString(), "ip", address.getHost(), "port", Integer.toString(address.getPort()), "flags", "slave" };
+                writeArrayHeader(out, fields.length);
+                for (String field : fields) writeBulk(out, bytes(field));
+            }
+        } else {
+            writeError(out, "ERR Unknown sentinel subcommand '"+subcommand+"'");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void hset(List<byte[]> command, OutputStream out) throws IOException {
+        Object existing = data.computeIfAbsent(string(command.get(1)), key -> new ConcurrentHashMap<String, byte[]>());
+        if (!(existing instanceof Map)) {
+            writeError(out, "WRONGTYPE Operation against a key holding the wrong kind of value");
+            return;
+        }
+        Map<String, byte[]> fields = (Map<String, byte[]>) existing;
+        long added = 0;
+        for (int index = 2; index + 1 < command.size(); index += 2) {
+            if (fields.put(string(command.get(index)), command.get(index + 1)) == null) added++;
+        }
+        writeInteger(out, added);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void hgetAll(String key, OutputStream out) throws IOException {
+        Object value = data.get(key);
+        if (value == null) {
+            writeArrayHeader(out, 0);
+        } else if (!(value instanceof Map)) {
+            writeError(out, "WRONGTYPE Operation against a key holding the wrong kind of value");
+        } else {
+            Map<String, byte[]> fields = (Map<String, byte[]>) value;
+            ArrayList<Map.Entry<String, byte[]>> entries = new ArrayList<>(fields.entrySet());
+            writeArrayHeader(out, entries.size() * 2);
+            for (Map.Entry<String, byte[]> entry : entries) {
+                writeBulk(out, bytes(entry.getKey()));
+                writeBulk(out, entry.getValue());
+            }
+        }
+    }
+
+    private void scan(List<byte[]> command, OutputStream out) throws IOException {
+        String prefix = "";
+        String type = null;
+        for (int index = 2; index + 1 < command.size(); index += 2) {
+            String option = string(command.get(index)).toUpperCase();
+            String argument = string(command.get(index + 1));
+            if (option.equals("MATCH")) prefix = argument.endsWith("*") ? argument.substring(0, argument.length() - 1) : argument;
+            else if (option.equals("TYPE")) type = argument;
+        }
+
+        ArrayList<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) continue;
+            if ((type != null) && !type.equals((entry.getValue() instanceof Map) ? "hash" : "string")) continue;
+            keys.add(entry.getKey());
+        }
+
+        writeArrayHeader(out, 2);
+        writeBulk(out, bytes("0"));
+        writeArrayHeader(out, keys.size());
+        for (String key : keys) writeBulk(out, bytes(key));
+    }
+
+    /** Reads a RESP array of bulk strings, or returns null once the client has disconnected */
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int marker = in.read();
+        if (marker == -1) return null;
+        if (marker != '*') throw new IOException("Expected an array but got '"+(char) marker+"'");
+
+        int count = (int) readNumber(in);
+        ArrayList<byte[]> command = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            if (in.read() != '$') throw new IOException("Expected a bulk string");
+            int length = (int) readNumber(in);
+            byte[] argument = in.readNBytes(length);
+            if ((argument.length < length) || (in.read() != '\r') || (in.read() != '\n')) throw new EOFException();
+            command.add(argument);
+        }
+        return command;
+    }
+
+    private static long readNumber(InputStream in) throws IOException {
+        long value = 0;
+        boolean negative = false;
+        int next;
+        while ((next = in.read()) != '\r') {
+            if (next == -1) throw new EOFException();
+            if (next == '-') negative = true;
+            else value = value * 10 + (next - '0');
+        }
+        in.read(); //the '\n'
+        return negative ? -value : value;
+    }
+
+    private static void writeSimple(OutputStream out, String value) throws IOException {
+        out.write('+');
+        out.write(bytes(value));
+        out.write(CRLF);
+    }
+
+    private static void writeError(OutputStream out, String message) throws IOException {
+        out.write('-');
+        out.write(bytes(message));
+        out.write(CRLF);
+    }
+
+    private static void writeInteger(OutputStream out, long value) throws IOException {
+        out.write(':');
+        out.write(bytes(Long.toString(value)));
+        out.write(CRLF);
+    }
+
+    private static void writeArrayHeader(OutputStream out, int size) throws IOException {
+        out.write('*');
+        out.write(bytes(Integer.toString(size)));
+        out.write(CRLF);
+    }
+
+    private static void writeBulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write(NULL_BULK);
+            return;
+        }
+        out.write('$');
+        out.write(bytes(Integer.toString(value.length)));
+        out.write(CRLF);
+        out.write(value);
+        out.write(CRLF);
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.ISO_8859_1); //lossless, so binary keys survive the round trip
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
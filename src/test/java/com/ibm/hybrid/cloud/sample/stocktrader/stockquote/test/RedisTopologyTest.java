@@ -0,0 +1,133 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.QuoteStore;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.RedisTopology;
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.json.Quote;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.ScanParams;
+
+public class RedisTopologyTest {
+    private static final QuoteStore STORE = new QuoteStore("quote:", QuoteStore.Format.BINARY);
+    private static final QuoteStore CLUSTER_STORE = new QuoteStore("quote:", QuoteStore.Format.BINARY, true);
+
+    @Test
+    public void testReadsGoToTheReplica() throws Exception {
+        try (RedisStandIn primary = new RedisStandIn(); RedisStandIn replica = RedisStandIn.replicaOf(primary);
+             RedisTopology redis = RedisTopology.standalone(primary.getURI(), new JedisPoolConfig(), Collections.singletonList(replica.getURI()))) {
+            assertTrue(redis.hasReplicas());
+            try (Jedis jedis = redis.getPrimary("quote:IBM")) {
+                STORE.set(jedis, "IBM", quote("IBM"));
+            }
+            try (Jedis jedis = redis.getReplica("quote:IBM")) {
+                assertEquals("IBM", STORE.get(jedis, "IBM").getSymbol());
+            }
+
+            assertEquals(1, primary.getCommandCount("SET"));
+            assertEquals(0, primary.getCommandCount("GET"));
+            assertEquals(1, replica.getCommandCount("GET"));
+        }
+    }
+
+    @Test(expected = JedisDataException.class)
+    public void testReplicaRefusesWrites() throws Exception {
+        try (RedisStandIn primary = new RedisStandIn(); RedisStandIn replica = RedisStandIn.replicaOf(primary);
+             RedisTopology redis = RedisTopology.standalone(primary.getURI(), new JedisPoolConfig(), Collections.singletonList(replica.getURI()));
+             Jedis jedis = redis.getReplica("quote:IBM")) {
+            STORE.set(jedis, "IBM", quote("IBM"));
+        }
+    }
+
+    @Test
+    public void testClusterRoutesEachKeyToItsSlot() throws Exception {
+        List<RedisStandIn> nodes = RedisStandIn.cluster(3, 1);
+        try (RedisTopology redis = RedisTopology.cluster(nodes.get(0).getURI(), null, new JedisPoolConfig())) {
+            assertTrue(redis.isCluster());
+            assertTrue(redis.hasReplicas());
+
+            HashSet<Object> shards = new HashSet<>();
+            for (int index = 0; index < 60; index++) {
+                String symbol = "SYM"+index;
+                try (Jedis jedis = redis.getPrimary(CLUSTER_STORE.key(symbol))) {
+                    CLUSTER_STORE.set(jedis, symbol, quote(symbol)); //would get a MOVED error if it went to the wrong node
+                }
+                try (Jedis jedis = redis.getReplica(CLUSTER_STORE.key(symbol))) {
+                    assertEquals(symbol, CLUSTER_STORE.get(jedis, symbol).getSymbol());
+                }
+                shards.add(redis.getShard(CLUSTER_STORE.key(symbol)));
+            }
+            assertEquals(3, shards.size());
+            for (RedisStandIn node : nodes.subList(0, 3)) {
+                assertTrue(node.size() > 0);
+                assertEquals(0, node.getCommandCount("GET")); //reads all went to the replicas
+            }
+
+            int found = 0;
+            for (Supplier<Jedis> shard : redis.getShardReaders()) {
+                try (Jedis jedis = shard.get()) { //the stand-in returns everything in one page
+                    List<String> keys = jedis.scan(ScanParams.SCAN_POINTER_START, CLUSTER_STORE.scanParams(500)).getResult();
+                    for (Quote quote : CLUSTER_STORE.getAll(jedis, keys)) { //would get a CROSSSLOT error from an MGET
+                        assertNotNull(quote);
+                        found++;
+                    }
+                }
+            }
+            assertEquals(60, found);
+        } finally {
+            for (RedisStandIn node : nodes) node.close();
+        }
+    }
+
+    @Test
+    public void testSentinelFindsThePrimaryAndReplicas() throws Exception {
+        try (RedisStandIn primary = new RedisStandIn(); RedisStandIn replica = RedisStandIn.replicaOf(primary);
+             RedisStandIn sentinel = RedisStandIn.sentinel("quotes", primary, replica);
+             RedisTopology redis = RedisTopology.sentinel(sentinel.getURI(), null, "quotes", null, new JedisPoolConfig())) {
+            assertTrue(redis.hasReplicas());
+            assertFalse(redis.isCluster());
+            try (Jedis jedis = redis.getPrimary("quote:IBM")) {
+                STORE.set(jedis, "IBM", quote("IBM"));
+            }
+            try (Jedis jedis = redis.getReplica("quote:IBM")) {
+                assertEquals("IBM", STORE.get(jedis, "IBM").getSymbol());
+            }
+
+            assertEquals(1, primary.getCommandCount("SET"));
+            assertEquals(1, replica.getCommandCount("GET"));
+        }
+    }
+
+    private static Quote quote(String symbol) {
+        return new Quote(symbol, 123.45, "2025-01-02", System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,60 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.UpstreamHealth;
+
+import org.junit.Test;
+
+public class UpstreamHealthTest {
+    @Test
+    public void testDownAfterConsecutiveFailures() throws InterruptedException {
+        UpstreamHealth health = new UpstreamHealth("test", 3, 50);
+        health.recordFailure();
+        health.recordFailure();
+        health.recordSuccess(); //resets the run
+        health.recordFailure();
+        health.recordFailure();
+        assertTrue(health.isAvailable());
+
+        health.recordFailure();
+        assertTrue(health.isDown());
+        assertFalse(health.isAvailable());
+        assertEquals(1, health.getSkippedCount());
+
+        Thread.sleep(60);
+        assertTrue(health.isAvailable()); //the trial call
+        assertFalse(health.isAvailable()); //only one at a time
+        health.recordSuccess();
+        assertFalse(health.isDown());
+        assertTrue(health.isAvailable());
+    }
+
+    @Test
+    public void testFailedTrialStaysDown() throws InterruptedException {
+        UpstreamHealth health = new UpstreamHealth("test", 1, 50);
+        health.recordFailure();
+        Thread.sleep(60);
+        assertTrue(health.isAvailable());
+        health.recordFailure();
+        assertFalse(health.isAvailable());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+       Copyright 2025 Kyndryl, All Rights Reserved
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+ */
+
+package com.ibm.hybrid.cloud.sample.stocktrader.stockquote.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import com.ibm.hybrid.cloud.sample.stocktrader.stockquote.cache.UpstreamLimiter;
+
+import org.junit.Test;
+
+import redis.clients.jedis.Jedis;
+
+public class UpstreamLimiterTest {
+    @Test
+    public void testBurstThenRate() throws InterruptedException {
+        UpstreamLimiter limiter = new UpstreamLimiter("test", 20, 3, 0, 0, null);
+        assertTrue(limiter.tryAcquire(false));
+        assertTrue(limiter.tryAcquire(false));
+        assertTrue(limiter.tryAcquire(false));
+        assertFalse(limiter.tryAcquire(true)); //the bucket's empty, essential or not
+
+        Thread.sleep(120); //a couple of tokens' worth
+        assertTrue(limiter.tryAcquire(false));
+        assertEquals(1, limiter.getDeniedCount());
+    }
+
+    @Test
+    public void testReserveIsKeptForEssentialCalls() {
+        UpstreamLimiter limiter = new UpstreamLimiter("test", 0, 0, 5, 2, null);
+        for (int count = 0; count < 3; count++) assertTrue(limiter.tryAcquire(false));
+        assertFalse(limiter.tryAcquire(false)); //only the reserve is left
+        assertTrue(limiter.tryAcquire(true));
+        assertTrue(limiter.tryAcquire(true));
+        assertFalse(limiter.tryAcquire(true));
+        assertEquals(0, limiter.getMonthlyRemaining());
+    }
+
+    @Test
+    public void testLimitsAreSharedViaRedis() throws Exception {
+        try (RedisStandIn redis = new RedisStandIn()) {
+            UpstreamLimiter pod1 = new UpstreamLimiter("test", 0, 0, 3, 0, key -> new Jedis(redis.getURI()));
+            UpstreamLimiter pod2 = new UpstreamLimiter("test", 0, 0, 3, 0, key -> new Jedis(redis.getURI()));
+            assertTrue(pod1.tryAcquire(false));
+            assertTrue(pod2.tryAcquire(false));
+            assertTrue(pod1.tryAcquire(false));
+            assertFalse(pod2.tryAcquire(true));
+            assertEquals(0, pod2.getMonthlyRemaining());
+        }
+    }
+
+    @Test
+    public void testCallsDeniedByTheQuotaDontUseUpTheRate() throws Exception {
+        try (RedisStandIn redis = new RedisStandIn(); Jedis jedis = new Jedis(redis.getURI())) {
+            UpstreamLimiter limiter = new UpstreamLimiter("test", 2, 2, 1, 0, key -> new Jedis(redis.getURI()));
+            long second = System.currentTimeMillis() / 1000;
+            assertTrue(limiter.tryAcquire(false));
+            assertFalse(limiter.tryAcquire(false)); //over the monthly quota
+
+            long counted = 0;
+            for (long key = second; key <= second + 1; key++) { //in case a second went by in between
+                String count = jedis.get("limit:{test}:"+key);
+                if (count == null) continue;
+                counted += Long.parseLong(count);
+                assertTrue(jedis.pttl("limit:{test}:"+key) > 0);
+            }
+            assertEquals(1, counted);
+
+            String monthKey = "limit:{test}:"+YearMonth.now(ZoneOffset.UTC);
+            assertEquals("1", jedis.get(monthKey));
+            assertTrue(jedis.pttl(monthKey) > 0);
+        }
+    }
+}
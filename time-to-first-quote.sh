@@ -0,0 +1,58 @@
+#!/bin/bash
+#       Copyright 2025 Kyndryl, All Rights Reserved
+
+#   Licensed under the Apache License, Version 2.0 (the "License");
+#   you may not use this file except in compliance with the License.
+#   You may obtain a copy of the License at
+
+#       http://www.apache.org/licenses/LICENSE-2.0
+
+#   Unless required by applicable law or agreed to in writing, software
+#   distributed under the License is distributed on an "AS IS" BASIS,
+#   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+#   See the License for the specific language governing permissions and
+#   limitations under the License.
+
+# Measures how long a stock-quote image takes from "run" to serving its first quote, so the standard, fast and
+# InstantOn images can be compared.  Usage: ./time-to-first-quote.sh <image> [extra run options]
+# For example:
+#   ./time-to-first-quote.sh stock-quote:latest
+#   ./time-to-first-quote.sh stock-quote:instanton --cap-add=CHECKPOINT_RESTORE --cap-add=SETPCAP --security-opt seccomp=unconfined
+# Set CONTAINER_ENGINE=podman to use podman rather than docker, RUNS to average over more than one start, and TIMEOUT
+# to the number of seconds to give up after (default 300), in which case the container is stopped and this exits with 2.
+
+IMAGE=$1
+if [ -z "$IMAGE" ]; then
+  echo "Usage: $0 <image> [extra run options]"
+  exit 1
+fi
+shift
+
+ENGINE=${CONTAINER_ENGINE:-docker}
+RUNS=${RUNS:-1}
+PORT=${PORT:-19080}
+TIMEOUT=${TIMEOUT:-300}
+TOTAL=0
+
+for RUN in $(seq 1 $RUNS); do
+  START=$(date +%s%N)
+  DEADLINE=$(( START + TIMEOUT * 1000000000 ))
+  CONTAINER=$($ENGINE run -d --rm -p $PORT:9080 -e AUTH_TYPE=none "$@" $IMAGE) || exit 1
+  # the TEST symbol needs neither Redis nor a quote provider, so this times just the server and the app starting up
+  until curl -sf -m 5 -u stock:trader http://localhost:$PORT/stock-quote/TEST > /dev/null; do
+    if [ $(date +%s%N) -ge $DEADLINE ]; then
+      echo "Run $RUN: no quote after $TIMEOUT seconds, giving up"
+      $ENGINE stop $CONTAINER > /dev/null
+      exit 2
+    fi
+    sleep 0.05
+  done
+  END=$(date +%s%N)
+  $ENGINE stop $CONTAINER > /dev/null
+
+  ELAPSED=$(( (END - START) / 1000000 ))
+  TOTAL=$(( TOTAL + ELAPSED ))
+  echo "Run $RUN: first quote after $ELAPSED ms"
+done
+
+echo "Average time to first quote for $IMAGE: $(( TOTAL / RUNS )) ms"